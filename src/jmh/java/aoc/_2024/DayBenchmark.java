@@ -0,0 +1,91 @@
+package aoc._2024;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aoc.Solver;
+
+/**
+ * Benchmarks parsing and both parts of every day, against the real inputs in
+ * {@code src/main/resources/input}. Run with {@code gradlew jmh}; the results
+ * are written as JSON to {@code build/results/jmh/results.json}.
+ * <p>
+ * See {@link ScaledDayBenchmark} for how the days whose input can be repeated
+ * grow with the size of their input.
+ *
+ * @author Paul Cormier
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DayBenchmark {
+
+    private static final String INPUT_TXT = "input/Day%d.txt";
+
+    @Param({ "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16", "17", "18", "19",
+             "20", "21", "22", "23", "24", "25" })
+    public int day;
+
+    private Solver<Object> solver;
+
+    private String fileName;
+
+    private Object input;
+
+
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        solver = (Solver<Object>) Runner.findSolver(day)
+                                        .orElseThrow(() -> new IllegalStateException("Day " + day + " has no solver."));
+        fileName = String.format(INPUT_TXT, day);
+    }
+
+
+
+    /**
+     * Parse the input afresh for each iteration, in case a part changes it.
+     */
+    @Setup(Level.Iteration)
+    public void parseInput() {
+        input = solver.parse(fileName);
+    }
+
+
+
+    @Benchmark
+    public Object parse() {
+        return solver.parse(fileName);
+    }
+
+
+
+    @Benchmark
+    public Object part1() {
+        return solver.part1(input);
+    }
+
+
+
+    @Benchmark
+    public Object part2() {
+        return solver.part2(input);
+    }
+}
@@ -0,0 +1,137 @@
+package aoc._2024;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aoc.Solver;
+
+/**
+ * Benchmarks both parts of the days whose input is a list of independent
+ * lines or numbers, with the parsed input repeated {@code scale} times, to see
+ * how each grows with the size of its input.
+ * <p>
+ * Repeating the input of any other day wouldn't give a valid, larger puzzle:
+ * a map would just gain rows, and a header would be repeated in the middle.
+ * Those days are only run at their real size, by {@link DayBenchmark}, and
+ * asking for one of them here fails its setup rather than quietly running it
+ * unscaled. The day is a parameter of its own, {@code scaledDay}, so that
+ * narrowing down {@link DayBenchmark}'s days never asks for one.
+ *
+ * @author Paul Cormier
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScaledDayBenchmark {
+
+    private static final String INPUT_TXT = "input/Day%d.txt";
+
+    /**
+     * The days whose lines, or numbers, are independent of each other.
+     */
+    private static final List<Integer> SCALABLE_DAYS = List.of(1, 2, 3, 7, 22);
+
+    @Param({ "1", "2", "3", "7", "22" })
+    public int scaledDay;
+
+    @Param({ "1", "2", "4", "8" })
+    public int scale;
+
+    private Solver<Object> solver;
+
+    private Object parsed;
+
+    private Object input;
+
+
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        if (!SCALABLE_DAYS.contains(scaledDay))
+            throw new IllegalStateException("Day " + scaledDay + "'s input can't be scaled, only days " + SCALABLE_DAYS);
+
+        solver = (Solver<Object>) Runner.findSolver(scaledDay)
+                                        .orElseThrow(() -> new IllegalStateException("Day " + scaledDay + " has no solver."));
+        parsed = solver.parse(String.format(INPUT_TXT, scaledDay));
+    }
+
+
+
+    /**
+     * Repeat the input afresh for each iteration, in case a part changes it.
+     */
+    @Setup(Level.Iteration)
+    public void scaleInput() {
+        input = scale(parsed, scale);
+    }
+
+
+
+    @Benchmark
+    public Object part1() {
+        return solver.part1(input);
+    }
+
+
+
+    @Benchmark
+    public Object part2() {
+        return solver.part2(input);
+    }
+
+
+
+    /**
+     * @param input The parsed input, a list of lines, an array of numbers or
+     *            an array of columns of numbers.
+     * @param scale The number of copies of the input to join together.
+     * @return A new list or array holding the input repeated.
+     */
+    private static Object scale(Object input, int scale) {
+        if (input instanceof List<?> lines) {
+            var scaled = new ArrayList<Object>(lines.size() * scale);
+            Collections.nCopies(scale, lines).forEach(scaled::addAll);
+            return scaled;
+        }
+
+        if (input instanceof long[] numbers) {
+            var scaled = Arrays.copyOf(numbers, numbers.length * scale);
+            for (int i = 1; i < scale; i++)
+                System.arraycopy(numbers, 0, scaled, i * numbers.length, numbers.length);
+            return scaled;
+        }
+
+        if (input instanceof int[][] columns) {
+            var scaled = new int[columns.length][];
+            for (int c = 0; c < columns.length; c++) {
+                scaled[c] = Arrays.copyOf(columns[c], columns[c].length * scale);
+                for (int i = 1; i < scale; i++)
+                    System.arraycopy(columns[c], 0, scaled[c], i * columns[c].length, columns[c].length);
+            }
+            return scaled;
+        }
+
+        throw new IllegalStateException("Can't scale an input of " + input.getClass());
+    }
+}
@@ -0,0 +1,226 @@
+package aoc;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A cursor over the bytes of an ASCII input, such as a file mapped by
+ * {@link FileUtils#mapFile(String)}, which reads numbers straight from the
+ * bytes without creating any strings along the way.
+ * <p>
+ * The cursor moves through one line at a time. Numbers on the current line are
+ * read with {@link #nextInt()} or {@link #nextLong()}, which skip over any
+ * separators in front of them, and {@link #nextLine()} moves on to the start
+ * of the next line.
+ * <p>
+ * Other values are read as fields, with {@link #nextField(char)}, which
+ * marks out the bytes up to the next separator. The current field can then be
+ * inspected in place with {@link #fieldLength()}, {@link #fieldByte(int)} and
+ * {@link #fieldEquals(CharSequence)}.
+ */
+public final class ByteCursor {
+
+    private final ByteBuffer buffer;
+
+    private final int limit;
+
+    private int position;
+
+    private int fieldStart;
+
+    private int fieldEnd;
+
+
+
+    /**
+     * @param buffer The bytes to read, from the buffer's position to its limit.
+     *            The buffer itself is not modified.
+     */
+    public ByteCursor(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+
+
+    /**
+     * @return {@code true} if there is anything left to read.
+     */
+    public boolean hasNextLine() {
+        return position < limit;
+    }
+
+
+
+    /**
+     * Skip the rest of the current line, moving to the start of the next one.
+     */
+    public void nextLine() {
+        while (position < limit && buffer.get(position++) != '\n')
+            ;
+    }
+
+
+
+    /**
+     * @return {@code true} if the cursor is at the end of the current line.
+     */
+    public boolean isEndOfLine() {
+        return position >= limit || buffer.get(position) == '\n' || buffer.get(position) == '\r';
+    }
+
+
+
+    /**
+     * Skip forward to the next number on the current line, if there is one.
+     * 
+     * @return {@code true} if there is another number before the end of the
+     *         current line.
+     */
+    public boolean hasNextNumber() {
+        while (!isEndOfLine()) {
+            byte current = buffer.get(position);
+            if (isDigit(current) || current == '-' && position + 1 < limit && isDigit(buffer.get(position + 1)))
+                return true;
+            position++;
+        }
+        return false;
+    }
+
+
+
+    /**
+     * Read the next number on the current line, skipping anything in front of
+     * it which isn't part of a number.
+     * 
+     * @return The value of the next number.
+     * @throws NoSuchElementException if there are no more numbers on the
+     *             current line.
+     * @throws ArithmeticException if the number doesn't fit in a long.
+     */
+    public long nextLong() {
+        if (!hasNextNumber())
+            throw new NoSuchElementException("There are no more numbers on the line at " + position);
+
+        boolean negative = buffer.get(position) == '-';
+        if (negative)
+            position++;
+
+        // Accumulate negatively, so that Long.MIN_VALUE can be read too
+        long value = 0;
+        while (position < limit && isDigit(buffer.get(position)))
+            value = Math.subtractExact(Math.multiplyExact(value, 10), buffer.get(position++) - '0');
+
+        return negative ? value : Math.negateExact(value);
+    }
+
+
+
+    /**
+     * Read the next number on the current line, skipping anything in front of
+     * it which isn't part of a number.
+     * 
+     * @return The value of the next number.
+     * @throws NoSuchElementException if there are no more numbers on the
+     *             current line.
+     * @throws ArithmeticException if the number doesn't fit in an int.
+     */
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+
+
+    /**
+     * Read the next field on the current line, which runs from the cursor,
+     * after any spaces, up to the separator or the end of the line. The
+     * cursor moves past the separator.
+     * 
+     * @param separator The character which ends the field.
+     * @return The length of the field, which may be 0.
+     * @throws NoSuchElementException if the cursor is already at the end of
+     *             the current line.
+     */
+    public int nextField(char separator) {
+        while (!isEndOfLine() && buffer.get(position) == ' ')
+            position++;
+        if (isEndOfLine())
+            throw new NoSuchElementException("There are no more fields on the line at " + position);
+
+        fieldStart = position;
+        while (!isEndOfLine() && buffer.get(position) != separator)
+            position++;
+        fieldEnd = position;
+        if (!isEndOfLine())
+            position++;
+
+        return fieldEnd - fieldStart;
+    }
+
+
+
+    /**
+     * @return The length of the field last read by {@link #nextField(char)}.
+     */
+    public int fieldLength() {
+        return fieldEnd - fieldStart;
+    }
+
+
+
+    /**
+     * @param index The index of a byte in the field last read by
+     *            {@link #nextField(char)}, from 0.
+     * @return The byte at that index.
+     * @throws IndexOutOfBoundsException if the index isn't in the field.
+     */
+    public byte fieldByte(int index) {
+        return buffer.get(fieldStart + Objects.checkIndex(index, fieldEnd - fieldStart));
+    }
+
+
+
+    /**
+     * @param expected The characters to compare against, which should be
+     *            ASCII.
+     * @return {@code true} if the field last read by
+     *         {@link #nextField(char)} holds exactly those characters.
+     */
+    public boolean fieldEquals(CharSequence expected) {
+        if (expected.length() != fieldEnd - fieldStart)
+            return false;
+        for (int i = 0; i < expected.length(); i++)
+            if (buffer.get(fieldStart + i) != expected.charAt(i))
+                return false;
+        return true;
+    }
+
+
+
+    /**
+     * @return The byte under the cursor, without moving past it.
+     * @throws NoSuchElementException if there is nothing left to read.
+     */
+    public byte peek() {
+        if (position >= limit)
+            throw new NoSuchElementException("The end of the input has been reached.");
+        return buffer.get(position);
+    }
+
+
+
+    /**
+     * @return The position of the cursor in the underlying buffer.
+     */
+    public int position() {
+        return position;
+    }
+
+
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
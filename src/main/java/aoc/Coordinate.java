@@ -2,6 +2,7 @@ package aoc;
 
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -10,6 +11,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -23,6 +25,12 @@ import org.apache.commons.lang3.tuple.Pair;
  */
 public final class Coordinate implements Comparable<Coordinate> {
 
+    /**
+     * The number of orthogonally adjacent coordinates, indexed by
+     * {@link #orthogonalAdjacent(int)}.
+     */
+    public static final int ORTHOGONAL_ADJACENT = 4;
+
     private final int row;
 
     private final int column;
@@ -97,22 +105,91 @@ public final class Coordinate implements Comparable<Coordinate> {
 
 
 
+    /**
+     * Get the coordinate with the given row and column. Coordinates inside the
+     * cached window (see {@link CoordinateCache}) are only created once, so
+     * the same instance is always returned for them; anything outside the
+     * window is a new instance.
+     * 
+     * @param row The row of the coordinate.
+     * @param column The column of the coordinate.
+     * @return A {@link Coordinate} with the given row and column.
+     */
     public static Coordinate of(int row, int column) {
+        int cachedRow = row - CoordinateCache.low;
+        int cachedColumn = column - CoordinateCache.low;
+        if (cachedRow >= 0 && cachedRow < CoordinateCache.size && cachedColumn >= 0 && cachedColumn < CoordinateCache.size)
+            return CoordinateCache.cache[cachedRow * CoordinateCache.size + cachedColumn];
+
         return new Coordinate(row, column);
     }
 
 
 
+    /**
+     * Pack this coordinate into a single long, for use with primitive
+     * collections like {@link LongSet} and {@link LongIntMap}.
+     * 
+     * @return The row in the upper 32 bits and the column in the lower 32 bits
+     *         of a long.
+     * @see #fromLong(long)
+     */
+    public long toLong() {
+        return pack(this.row, this.column);
+    }
+
+
+
+    /**
+     * @param row The row to pack.
+     * @param column The column to pack.
+     * @return The row in the upper 32 bits and the column in the lower 32 bits
+     *         of a long, the same as {@link #toLong()} for a coordinate with
+     *         this row and column.
+     */
+    public static long pack(int row, int column) {
+        return (long) row << 32 | column & 0xFFFF_FFFFL;
+    }
+
+
+
+    /**
+     * @param packed A coordinate packed by {@link #pack(int, int)}.
+     * @return The row of the packed coordinate.
+     */
+    public static int unpackRow(long packed) {
+        return (int) (packed >> 32);
+    }
+
+
+
+    /**
+     * @param packed A coordinate packed by {@link #pack(int, int)}.
+     * @return The column of the packed coordinate.
+     */
+    public static int unpackColumn(long packed) {
+        return (int) packed;
+    }
+
+
+
+    /**
+     * @param packed A coordinate packed by {@link #toLong()}.
+     * @return The coordinate with the packed row and column.
+     */
+    public static Coordinate fromLong(long packed) {
+        return Coordinate.of(unpackRow(packed), unpackColumn(packed));
+    }
+
+
+
     /**
      * @return The set of adjacent coordinates to this coordinate.
      */
     public Set<Coordinate> findAdjacent() {
-        return IntStream.rangeClosed(-1, 1)
-                        .mapToObj(x -> IntStream.rangeClosed(-1, 1)
-                                                .filter(y -> !(x == 0 && y == 0))
-                                                .mapToObj(y -> Coordinate.of(this.row + y, this.column + x)))
-                        .flatMap(Function.identity())
-                        .collect(Collectors.toSet());
+        Set<Coordinate> adjacent = new HashSet<>();
+        forEachAdjacent(adjacent::add);
+        return adjacent;
     }
 
 
@@ -121,12 +198,82 @@ public final class Coordinate implements Comparable<Coordinate> {
      * @return The set of orthogonally adjacent coordinates to this coordinate.
      */
     public Set<Coordinate> findOrthogonalAdjacent() {
-        return IntStream.rangeClosed(-1, 1)
-                        .mapToObj(x -> IntStream.rangeClosed(-1, 1)
-                                                .filter(y -> x == 0 ^ y == 0)
-                                                .mapToObj(y -> Coordinate.of(this.row + y, this.column + x)))
-                        .flatMap(Function.identity())
-                        .collect(Collectors.toSet());
+        Set<Coordinate> adjacent = new HashSet<>();
+        forEachOrthogonalAdjacent(adjacent::add);
+        return adjacent;
+    }
+
+
+
+    /**
+     * Visit the row and column of each adjacent coordinate to this coordinate,
+     * including diagonals, without creating any objects.
+     * 
+     * @param action The action to perform with the row and column of each
+     *            adjacent coordinate.
+     */
+    public void forEachAdjacent(IntIntConsumer action) {
+        forEachOffset(Offsets.ROWS, Offsets.COLUMNS, action);
+    }
+
+
+
+    /**
+     * Visit the row and column of each orthogonally adjacent coordinate to
+     * this coordinate without creating any objects.
+     * 
+     * @param action The action to perform with the row and column of each
+     *            orthogonally adjacent coordinate.
+     */
+    public void forEachOrthogonalAdjacent(IntIntConsumer action) {
+        forEachOffset(Offsets.ORTHOGONAL_ROWS, Offsets.ORTHOGONAL_COLUMNS, action);
+    }
+
+
+
+    /**
+     * Visit each adjacent coordinate to this coordinate, including diagonals.
+     * Unlike {@link #findAdjacent()}, no set is built.
+     * 
+     * @param action The action to perform on each adjacent coordinate.
+     */
+    public void forEachAdjacent(Consumer<Coordinate> action) {
+        forEachAdjacent((r, c) -> action.accept(Coordinate.of(r, c)));
+    }
+
+
+
+    /**
+     * Visit each orthogonally adjacent coordinate to this coordinate. Unlike
+     * {@link #findOrthogonalAdjacent()}, no set is built.
+     * 
+     * @param action The action to perform on each orthogonally adjacent
+     *            coordinate.
+     */
+    public void forEachOrthogonalAdjacent(Consumer<Coordinate> action) {
+        forEachOrthogonalAdjacent((r, c) -> action.accept(Coordinate.of(r, c)));
+    }
+
+
+
+    /**
+     * Get one of the orthogonally adjacent coordinates, so that they can be
+     * visited with a plain loop rather than a callback.
+     * 
+     * @param i Which neighbour, from 0 to {@link #ORTHOGONAL_ADJACENT} - 1, in
+     *            the clockwise order of {@link Direction}.
+     * @return The orthogonally adjacent coordinate, from
+     *         {@link #of(int, int)}.
+     */
+    public Coordinate orthogonalAdjacent(int i) {
+        return Coordinate.of(this.row + Offsets.ORTHOGONAL_ROWS[i], this.column + Offsets.ORTHOGONAL_COLUMNS[i]);
+    }
+
+
+
+    private void forEachOffset(int[] rowOffsets, int[] columnOffsets, IntIntConsumer action) {
+        for (int i = 0; i < rowOffsets.length; i++)
+            action.accept(this.row + rowOffsets[i], this.column + columnOffsets[i]);
     }
 
 
@@ -207,7 +354,7 @@ public final class Coordinate implements Comparable<Coordinate> {
                      .forEach(i -> {
                          char digit = line.charAt(i);
                          if (Character.isDigit(digit))
-                             coordinates.put(new Coordinate(row.get(), i + 1), digit - '0');
+                             coordinates.put(Coordinate.of(row.get(), i + 1), digit - '0');
                      });
 
             row.getAndIncrement();
@@ -241,6 +388,7 @@ public final class Coordinate implements Comparable<Coordinate> {
      * @param blankSpace The character to be treated as a blank space.
      * @return A map of coordinates to the character found at those coordinates.
      *         The coordinate range starts at 1 and increases.
+     * @see Grid#of(List, char) for an array backed alternative.
      */
     public static Map<Coordinate, Character> mapCoordinates(List<String> lines, char blankSpace) {
 
@@ -295,7 +443,7 @@ public final class Coordinate implements Comparable<Coordinate> {
         for (String line : lines) {
             coordinates.addAll(ArrayUtils.indexesOf(line.toCharArray(), charToFind)
                                          .stream()
-                                         .mapToObj(c -> new Coordinate(row.get(), c + 1))
+                                         .mapToObj(c -> Coordinate.of(row.get(), c + 1))
                                          .collect(Collectors.toSet()));
             row.getAndIncrement();
         }
@@ -323,7 +471,7 @@ public final class Coordinate implements Comparable<Coordinate> {
         StringBuilder printout = new StringBuilder(rows * columns + rows);
 
         while (location < (rows + 1) * columns) {
-            printout.append((char) (coordinates.getOrDefault(new Coordinate(location / columns, location % columns + 1),
+            printout.append((char) (coordinates.getOrDefault(Coordinate.of(location / columns, location % columns + 1),
                                                              '.' - '0') +
                                     '0'));
 
@@ -441,7 +589,7 @@ public final class Coordinate implements Comparable<Coordinate> {
         StringBuilder printout = new StringBuilder(rows * columns + rows);
 
         while (location < (rows + 1) * columns) {
-            printout.append(coordinates.getOrDefault(new Coordinate(location / columns, location % columns + 1), '.'));
+            printout.append(coordinates.getOrDefault(Coordinate.of(location / columns, location % columns + 1), '.'));
 
             if (location % columns == columns - 1)
                 printout.append('\n');
@@ -564,7 +712,7 @@ public final class Coordinate implements Comparable<Coordinate> {
         StringBuilder printout = new StringBuilder(rows * columns + rows);
 
         while (location < (rows + 1) * columns) {
-            Coordinate coordinate = new Coordinate(location / columns, location % columns + 1);
+            Coordinate coordinate = Coordinate.of(location / columns, location % columns + 1);
             char marker = '.';
             if (firstCoordinates.contains(coordinate))
                 marker = firstMarker;
@@ -633,4 +781,84 @@ public final class Coordinate implements Comparable<Coordinate> {
 
     public record CoordinatePair(Coordinate c1, Coordinate c2) {
     }
+
+
+
+    /**
+     * An operation on a row and column, which avoids boxing them into a
+     * {@link Coordinate}.
+     */
+    @FunctionalInterface
+    public interface IntIntConsumer {
+
+        void accept(int row, int column);
+    }
+
+
+
+    /**
+     * The row and column offsets to each neighbouring coordinate, in the
+     * clockwise order of {@link Direction}. These are held apart from
+     * {@link Coordinate} since the directions can only be read once both
+     * classes have been initialised.
+     */
+    static final class Offsets {
+
+        static final int[] ROWS = rowOffsets(EnumSet.allOf(Direction.class));
+
+        static final int[] COLUMNS = columnOffsets(EnumSet.allOf(Direction.class));
+
+        static final int[] ORTHOGONAL_ROWS = rowOffsets(Direction.ORTHOGONAL_DIRECTIONS);
+
+        static final int[] ORTHOGONAL_COLUMNS = columnOffsets(Direction.ORTHOGONAL_DIRECTIONS);
+
+
+
+        private Offsets() {
+        }
+
+
+
+        private static int[] rowOffsets(Set<Direction> directions) {
+            return directions.stream().mapToInt(d -> d.getTranslation().getRow()).toArray();
+        }
+
+
+
+        private static int[] columnOffsets(Set<Direction> directions) {
+            return directions.stream().mapToInt(d -> d.getTranslation().getColumn()).toArray();
+        }
+    }
+
+
+
+    /**
+     * The cache of coordinates served by {@link Coordinate#of(int, int)}. Much
+     * like {@link Integer#valueOf(int)}, every coordinate with a row and
+     * column in the window from {@code low} to {@code high} is created up
+     * front. The bounds can be changed with the
+     * {@code aoc.Coordinate.cache.low} and {@code aoc.Coordinate.cache.high}
+     * system properties; the default window covers all of the puzzle maps
+     * plus a border of one.
+     */
+    private static final class CoordinateCache {
+
+        static final int low = Integer.getInteger("aoc.Coordinate.cache.low", -1);
+
+        static final int high = Integer.getInteger("aoc.Coordinate.cache.high", 255);
+
+        static final int size = Math.max(high - low + 1, 0);
+
+        static final Coordinate[] cache = new Coordinate[Math.multiplyExact(size, size)];
+
+        static {
+            for (int i = 0; i < cache.length; i++)
+                cache[i] = new Coordinate(low + i / size, low + i % size);
+        }
+
+
+
+        private CoordinateCache() {
+        }
+    }
 }
\ No newline at end of file
@@ -1,11 +1,23 @@
 package aoc;
 
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -28,11 +40,18 @@ public final class FileUtils {
      * @param fileName
      *            The name of a file which can be found on the classpath.
      * @return A {@link List} of strings, one for each line in the file. Returns
-     *         an empty list if there were any errors opening the file.
+     *         an empty list if the file can't be found or there were any
+     *         errors opening it.
      */
     public static List<String> readFile(final String fileName) {
         try {
-            return Files.readAllLines(Paths.get(ClassLoader.getSystemResource(fileName).toURI()));
+            var resource = findResource(fileName);
+            if (isFile(resource))
+                return Files.readAllLines(Paths.get(resource.toURI()));
+
+            try (var reader = openReader(resource)) {
+                return reader.lines().collect(Collectors.toCollection(ArrayList::new));
+            }
         } catch (IOException | URISyntaxException e) {
             e.printStackTrace();
             return Collections.emptyList();
@@ -46,16 +65,84 @@ public final class FileUtils {
      * @param fileName
      *            The name of a file which can be found on the classpath.
      * @return A {@link Stream} of strings, one for each line in the file.
-     *         Returns an empty stream if there were any errors opening the
-     *         file.
+     *         Returns an empty stream if the file can't be found or there were
+     *         any errors opening it.
      */
     public static Stream<String> readFileToStream(final String fileName) {
         try {
-            return Files.lines(Paths.get(ClassLoader.getSystemResource(fileName).toURI()));
+            var resource = findResource(fileName);
+            if (isFile(resource))
+                return Files.lines(Paths.get(resource.toURI()));
+
+            var reader = openReader(resource);
+            return reader.lines().onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
         } catch (IOException | URISyntaxException e) {
             e.printStackTrace();
             return Stream.empty();
         }
     }
 
+    /**
+     * Map a file, available on the classpath, into memory without reading or
+     * decoding it. Wrap the result in a {@link ByteCursor} to parse numbers
+     * straight from the bytes. Files over 2GB can't be mapped into a single
+     * buffer. Resources which aren't plain files, such as those packaged in a
+     * jar, can't be mapped, so they are read into a heap buffer instead.
+     * 
+     * @param fileName
+     *            The name of a file which can be found on the classpath.
+     * @return A read-only buffer of the contents of the file, which is a
+     *         {@link java.nio.MappedByteBuffer} if the file could be mapped.
+     *         Returns an empty buffer if the file can't be found or there were
+     *         any errors opening it.
+     */
+    public static ByteBuffer mapFile(final String fileName) {
+        try {
+            var resource = findResource(fileName);
+            if (!isFile(resource)) {
+                try (var in = resource.openStream()) {
+                    return ByteBuffer.wrap(in.readAllBytes()).asReadOnlyBuffer();
+                }
+            }
+
+            try (var channel = FileChannel.open(Paths.get(resource.toURI()), StandardOpenOption.READ)) {
+                return channel.map(MapMode.READ_ONLY, 0, channel.size());
+            }
+        } catch (IOException | URISyntaxException e) {
+            e.printStackTrace();
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * @param fileName The name of a file which can be found on the classpath.
+     * @return The location of the file.
+     * @throws FileNotFoundException If there's no such file on the classpath.
+     */
+    private static URL findResource(final String fileName) throws FileNotFoundException {
+        var resource = ClassLoader.getSystemResource(fileName);
+        if (resource == null)
+            throw new FileNotFoundException("No resource named " + fileName);
+        return resource;
+    }
+
+    /**
+     * @param resource The location of a file on the classpath.
+     * @return {@code true} if it is a plain file, which can be opened as a
+     *         {@link java.nio.file.Path}, rather than one packaged in a jar.
+     */
+    private static boolean isFile(final URL resource) {
+        return "file".equals(resource.getProtocol());
+    }
+
+    private static BufferedReader openReader(final URL resource) throws IOException {
+        return new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8));
+    }
+
 }
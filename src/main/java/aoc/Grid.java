@@ -0,0 +1,486 @@
+package aoc;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * A rectangular grid of characters, backed by a single flat array. Rows and
+ * columns start at 1, matching the maps produced by
+ * {@link Coordinate#mapCoordinates(List)}, and each cell can also be addressed
+ * by its index in the backing array.
+ * <p>
+ * Lookups, bounds checks and neighbour iteration do not allocate, and
+ * {@link #asMap()} gives a {@link Map} view for code which still expects the
+ * map of non-blank characters.
+ */
+public final class Grid {
+
+    private final int rows;
+
+    private final int columns;
+
+    private final char blankSpace;
+
+    private final char[] cells;
+
+    /** The number of cells which do not hold the blank space character. */
+    private int present;
+
+
+
+    private Grid(int rows, int columns, char blankSpace) {
+        this.rows = rows;
+        this.columns = columns;
+        this.blankSpace = blankSpace;
+        this.cells = new char[rows * columns];
+        Arrays.fill(this.cells, blankSpace);
+    }
+
+
+
+    /**
+     * Create a grid from the given lines. The default blank character is a
+     * period '.'.
+     *
+     * @param lines The lines to read into the grid.
+     * @return A new grid, with as many rows as there are lines, and as many
+     *         columns as the longest line.
+     */
+    public static Grid of(List<String> lines) {
+        return of(lines, '.');
+    }
+
+
+
+    /**
+     * Create a grid from the given lines. Lines shorter than the longest line
+     * are padded with the blank space character.
+     *
+     * @param lines The lines to read into the grid.
+     * @param blankSpace The character to be treated as a blank space.
+     * @return A new grid, with as many rows as there are lines, and as many
+     *         columns as the longest line.
+     */
+    public static Grid of(List<String> lines, char blankSpace) {
+        int columns = lines.stream().mapToInt(String::length).max().orElse(0);
+        Grid grid = new Grid(lines.size(), columns, blankSpace);
+
+        int offset = 0;
+        for (String line : lines) {
+            line.getChars(0, line.length(), grid.cells, offset);
+            offset += columns;
+        }
+        for (char c : grid.cells)
+            if (c != blankSpace)
+                grid.present++;
+
+        return grid;
+    }
+
+
+
+    /**
+     * Create an empty grid.
+     *
+     * @param rows The number of rows in the grid.
+     * @param columns The number of columns in the grid.
+     * @param blankSpace The character every cell starts as.
+     * @return A new grid filled with the blank space character.
+     */
+    public static Grid empty(int rows, int columns, char blankSpace) {
+        return new Grid(rows, columns, blankSpace);
+    }
+
+
+
+    public int getRows() {
+        return rows;
+    }
+
+
+
+    public int getColumns() {
+        return columns;
+    }
+
+
+
+    public char getBlankSpace() {
+        return blankSpace;
+    }
+
+
+
+    /**
+     * @return The total number of cells in the grid, which is one more than the
+     *         highest index.
+     */
+    public int size() {
+        return cells.length;
+    }
+
+
+
+    /**
+     * @param row The row to check.
+     * @param column The column to check.
+     * @return {@code true} if the row and column are inside this grid.
+     */
+    public boolean isInBounds(int row, int column) {
+        return row >= 1 && row <= rows && column >= 1 && column <= columns;
+    }
+
+
+
+    /**
+     * @param row The row of the cell, starting at 1.
+     * @param column The column of the cell, starting at 1.
+     * @return The index of the cell in the backing array, or -1 if the row and
+     *         column are outside the grid.
+     */
+    public int indexOf(int row, int column) {
+        return isInBounds(row, column) ? (row - 1) * columns + column - 1 : -1;
+    }
+
+
+
+    /**
+     * @param coordinate The coordinate of the cell.
+     * @return The index of the cell in the backing array, or -1 if the
+     *         coordinate is outside the grid.
+     */
+    public int indexOf(Coordinate coordinate) {
+        return indexOf(coordinate.getRow(), coordinate.getColumn());
+    }
+
+
+
+    /**
+     * @param value The character to look for.
+     * @return The index of the first cell holding the given character, or -1 if
+     *         it is not in the grid.
+     */
+    public int indexOf(char value) {
+        for (int i = 0; i < cells.length; i++)
+            if (cells[i] == value)
+                return i;
+        return -1;
+    }
+
+
+
+    /**
+     * @param index The index of a cell.
+     * @return The row of the cell at the given index, starting at 1.
+     */
+    public int rowOf(int index) {
+        return index / columns + 1;
+    }
+
+
+
+    /**
+     * @param index The index of a cell.
+     * @return The column of the cell at the given index, starting at 1.
+     */
+    public int columnOf(int index) {
+        return index % columns + 1;
+    }
+
+
+
+    /**
+     * @param index The index of a cell.
+     * @return The {@link Coordinate} of the cell at the given index.
+     */
+    public Coordinate coordinateOf(int index) {
+        return Coordinate.of(rowOf(index), columnOf(index));
+    }
+
+
+
+    /**
+     * @param index The index of a cell.
+     * @return The character at the given index.
+     */
+    public char get(int index) {
+        return cells[index];
+    }
+
+
+
+    /**
+     * @param row The row of the cell, starting at 1.
+     * @param column The column of the cell, starting at 1.
+     * @return The character at the given row and column, or the blank space
+     *         character if they are outside the grid.
+     */
+    public char get(int row, int column) {
+        return isInBounds(row, column) ? cells[(row - 1) * columns + column - 1] : blankSpace;
+    }
+
+
+
+    /**
+     * @param coordinate The coordinate of the cell.
+     * @return The character at the given coordinate, or the blank space
+     *         character if it is outside the grid.
+     */
+    public char get(Coordinate coordinate) {
+        return get(coordinate.getRow(), coordinate.getColumn());
+    }
+
+
+
+    /**
+     * Replace the character at the given index.
+     *
+     * @param index The index of a cell.
+     * @param value The new character for the cell.
+     * @return The previous character in the cell.
+     */
+    public char set(int index, char value) {
+        char previous = cells[index];
+        if (previous == blankSpace && value != blankSpace)
+            present++;
+        else if (previous != blankSpace && value == blankSpace)
+            present--;
+        cells[index] = value;
+        return previous;
+    }
+
+
+
+    /**
+     * Replace the character at the given row and column.
+     *
+     * @param row The row of the cell, starting at 1.
+     * @param column The column of the cell, starting at 1.
+     * @param value The new character for the cell.
+     * @return The previous character in the cell.
+     * @throws IndexOutOfBoundsException if the row and column are outside the
+     *             grid.
+     */
+    public char set(int row, int column, char value) {
+        if (!isInBounds(row, column))
+            throw new IndexOutOfBoundsException(String.format("(%s, %s) is outside the %sx%s grid.",
+                                                              row, column, rows, columns));
+        return set((row - 1) * columns + column - 1, value);
+    }
+
+
+
+    /**
+     * @param index The index of a cell.
+     * @param direction The direction to move from the cell.
+     * @return The index of the neighbouring cell in the given direction, or -1
+     *         if it is outside the grid.
+     */
+    public int neighbour(int index, Direction direction) {
+        return indexOf(rowOf(index) + direction.getTranslation().getRow(),
+                       columnOf(index) + direction.getTranslation().getColumn());
+    }
+
+
+
+    /**
+     * Visit the index of every adjacent cell, including diagonals, which is
+     * inside the grid.
+     *
+     * @param index The index of a cell.
+     * @param action The action to perform on the index of each neighbour.
+     */
+    public void forEachNeighbour(int index, IntConsumer action) {
+        forEachOffset(index, Coordinate.Offsets.ROWS, Coordinate.Offsets.COLUMNS, action);
+    }
+
+
+
+    /**
+     * Visit the index of every orthogonally adjacent cell which is inside the
+     * grid.
+     *
+     * @param index The index of a cell.
+     * @param action The action to perform on the index of each neighbour.
+     */
+    public void forEachOrthogonalNeighbour(int index, IntConsumer action) {
+        forEachOffset(index, Coordinate.Offsets.ORTHOGONAL_ROWS, Coordinate.Offsets.ORTHOGONAL_COLUMNS, action);
+    }
+
+
+
+    private void forEachOffset(int index, int[] rowOffsets, int[] columnOffsets, IntConsumer action) {
+        int row = rowOf(index);
+        int column = columnOf(index);
+        for (int i = 0; i < rowOffsets.length; i++) {
+            int neighbour = indexOf(row + rowOffsets[i], column + columnOffsets[i]);
+            if (neighbour >= 0)
+                action.accept(neighbour);
+        }
+    }
+
+
+
+    /**
+     * @return A copy of this grid, which can be modified independently.
+     */
+    public Grid copy() {
+        Grid copy = new Grid(rows, columns, blankSpace);
+        System.arraycopy(cells, 0, copy.cells, 0, cells.length);
+        copy.present = present;
+        return copy;
+    }
+
+
+
+    /**
+     * Create a {@link Map} view of this grid, with an entry for every cell
+     * which doesn't hold the blank space character, in the same shape as
+     * {@link Coordinate#mapCoordinates(List, char)}. Lookups go straight to the
+     * backing array, and changes made through the view write through to the
+     * grid. Putting a value outside the grid throws an
+     * {@link IllegalArgumentException}, and putting a {@code null} value throws
+     * a {@link NullPointerException}, as every cell holds a character; use
+     * {@link Map#remove(Object)} to blank a cell instead.
+     *
+     * @return A map of coordinates to the non-blank characters in this grid.
+     */
+    public Map<Coordinate, Character> asMap() {
+        return new MapView();
+    }
+
+
+
+    @Override
+    public String toString() {
+        StringBuilder printout = new StringBuilder(rows * (columns + 1));
+        for (int offset = 0; offset < cells.length; offset += columns)
+            printout.append(cells, offset, columns).append('\n');
+        return printout.toString();
+    }
+
+
+
+    /**
+     * The {@link Map} view of a grid.
+     */
+    private final class MapView extends AbstractMap<Coordinate, Character> {
+
+        @Override
+        public int size() {
+            return present;
+        }
+
+
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+
+
+        @Override
+        public Character get(Object key) {
+            if (!(key instanceof Coordinate coordinate))
+                return null;
+            int index = indexOf(coordinate);
+            return index < 0 || cells[index] == blankSpace ? null : cells[index];
+        }
+
+
+
+        /**
+         * @throws IllegalArgumentException If the key is outside the grid.
+         * @throws NullPointerException If the value is {@code null}.
+         */
+        @Override
+        public Character put(Coordinate key, Character value) {
+            if (value == null)
+                throw new NullPointerException("A grid cell can't hold null, remove " + key + " instead.");
+            int index = indexOf(key);
+            if (index < 0)
+                throw new IllegalArgumentException(key + " is outside the grid.");
+            char previous = set(index, value);
+            return previous == blankSpace ? null : previous;
+        }
+
+
+
+        @Override
+        public Character remove(Object key) {
+            Character previous = get(key);
+            if (previous != null)
+                set(indexOf((Coordinate) key), blankSpace);
+            return previous;
+        }
+
+
+
+        @Override
+        public Set<Entry<Coordinate, Character>> entrySet() {
+            return new AbstractSet<>() {
+
+                @Override
+                public int size() {
+                    return present;
+                }
+
+
+
+                @Override
+                public Iterator<Entry<Coordinate, Character>> iterator() {
+                    return new Iterator<>() {
+
+                        private int next = advance(0);
+
+                        private int last = -1;
+
+
+
+                        private int advance(int from) {
+                            while (from < cells.length && cells[from] == blankSpace)
+                                from++;
+                            return from;
+                        }
+
+
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < cells.length;
+                        }
+
+
+
+                        @Override
+                        public Entry<Coordinate, Character> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            last = next;
+                            next = advance(next + 1);
+                            return new SimpleImmutableEntry<>(coordinateOf(last), cells[last]);
+                        }
+
+
+
+                        @Override
+                        public void remove() {
+                            if (last < 0)
+                                throw new IllegalStateException();
+                            set(last, blankSpace);
+                            last = -1;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
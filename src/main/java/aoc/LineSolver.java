@@ -0,0 +1,50 @@
+package aoc;
+
+import java.util.stream.Stream;
+
+/**
+ * A puzzle whose answer can be folded up one line of input at a time. The
+ * lines can be streamed straight from the input file, so the input never has
+ * to be held in memory all at once.
+ * <p>
+ * Lines are always handed to {@link #solveLine(String)} in order, on one
+ * thread, so a solver may carry state from one line to the next.
+ */
+@FunctionalInterface
+public interface LineSolver {
+
+    /**
+     * @param line One line of the input.
+     * @return The amount the line adds to the answer.
+     */
+    long solveLine(String line);
+
+
+
+    /**
+     * Fold every line into the answer.
+     * 
+     * @param lines The lines of the input.
+     * @return The sum of the amounts each line adds to the answer.
+     */
+    default long solve(Stream<String> lines) {
+        return lines.sequential()
+                    .mapToLong(this::solveLine)
+                    .sum();
+    }
+
+
+
+    /**
+     * Stream the lines of a file, available on the classpath, through this
+     * solver.
+     * 
+     * @param fileName The name of a file which can be found on the classpath.
+     * @return The sum of the amounts each line adds to the answer.
+     */
+    default long solve(String fileName) {
+        try (var lines = FileUtils.readFileToStream(fileName)) {
+            return solve(lines);
+        }
+    }
+}
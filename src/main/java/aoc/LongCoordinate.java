@@ -24,6 +24,18 @@ public class LongCoordinate {
         return new LongCoordinate(row, column);
     }
 
+    /**
+     * Pack this coordinate into a single long, the same way as
+     * {@link Coordinate#toLong()}.
+     * 
+     * @return The row in the upper 32 bits and the column in the lower 32 bits
+     *         of a long.
+     * @throws ArithmeticException if the row or column does not fit in an int.
+     */
+    public long toLong() {
+        return Coordinate.pack(Math.toIntExact(row), Math.toIntExact(column));
+    }
+
     /**
      * Return the pre-generated hashCode for this Coordinate.
      */
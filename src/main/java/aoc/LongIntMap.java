@@ -0,0 +1,188 @@
+package aoc;
+
+import java.util.function.IntBinaryOperator;
+import java.util.stream.LongStream;
+
+/**
+ * A map of primitive long keys to primitive int values, using open addressing
+ * with linear probing so that no entries are boxed or allocated as values are
+ * added. Pairs well with {@link Coordinate#toLong()} for maps keyed by
+ * coordinates.
+ */
+public final class LongIntMap extends LongKeyTable {
+
+    /** The value for each key, in the same slot as the key. */
+    private int[] values;
+
+    private int freeValue;
+
+
+
+    public LongIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+
+    /**
+     * @param expectedSize The number of entries the map should hold before
+     *            needing to grow.
+     */
+    public LongIntMap(int expectedSize) {
+        super(expectedSize);
+        values = new int[capacity()];
+    }
+
+
+
+    /**
+     * @param key The key to look for.
+     * @return {@code true} if the map has a value for the key.
+     */
+    public boolean containsKey(long key) {
+        return hasKey(key);
+    }
+
+
+
+    /**
+     * @param key The key to look up.
+     * @param defaultValue The value to return if the key is not in the map.
+     * @return The value for the key, or the default value if there isn't one.
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        if (key == FREE)
+            return containsFree ? freeValue : defaultValue;
+
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+
+
+    /**
+     * Set the value for a key, replacing any existing value.
+     * 
+     * @param key The key to set.
+     * @param value The value for the key.
+     */
+    public void put(long key, int value) {
+        if (key == FREE) {
+            addFree();
+            freeValue = value;
+            return;
+        }
+
+        int slot = probe(key);
+        values[slot] = value;
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            keyAdded();
+        }
+    }
+
+
+
+    /**
+     * Like {@link java.util.Map#merge}, set the value for the key if it has
+     * none, otherwise combine the existing value with the given one.
+     * 
+     * @param key The key to set.
+     * @param value The value to set, or to combine with the existing value.
+     * @param remapping How to combine the existing and given values.
+     * @return The new value for the key.
+     */
+    public int merge(long key, int value, IntBinaryOperator remapping) {
+        if (key == FREE) {
+            if (!addFree())
+                value = remapping.applyAsInt(freeValue, value);
+            return freeValue = value;
+        }
+
+        int slot = probe(key);
+        if (keys[slot] == key)
+            return values[slot] = remapping.applyAsInt(values[slot], value);
+        keys[slot] = key;
+        values[slot] = value;
+        keyAdded();
+        return value;
+    }
+
+
+
+    /**
+     * @param key The key to remove.
+     * @return {@code true} if the key was in the map.
+     */
+    public boolean remove(long key) {
+        if (key == FREE)
+            return removeFree();
+
+        int slot = find(key);
+        if (slot < 0)
+            return false;
+        removeAt(slot);
+        return true;
+    }
+
+
+
+    /**
+     * @param action The action to perform on each entry in the map, in no
+     *            particular order.
+     */
+    public void forEach(LongIntConsumer action) {
+        if (containsFree)
+            action.accept(FREE, freeValue);
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != FREE)
+                action.accept(keys[i], values[i]);
+    }
+
+
+
+    /**
+     * @return A stream of the keys in this map, in no particular order.
+     */
+    public LongStream keys() {
+        return keyStream();
+    }
+
+
+
+    @Override
+    public String toString() {
+        StringBuilder printout = new StringBuilder("{");
+        forEach((k, v) -> printout.append(printout.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return printout.append('}').toString();
+    }
+
+
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+
+
+    @Override
+    void rehashValues(int[] moves, int capacity) {
+        int[] oldValues = values;
+        values = new int[capacity];
+        for (int i = 0; i < moves.length; i++)
+            if (moves[i] >= 0)
+                values[moves[i]] = oldValues[i];
+    }
+
+
+
+    /**
+     * An operation on a long key and int value, which avoids boxing them.
+     */
+    @FunctionalInterface
+    public interface LongIntConsumer {
+
+        void accept(long key, int value);
+    }
+}
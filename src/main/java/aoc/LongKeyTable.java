@@ -0,0 +1,289 @@
+package aoc;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * The table of keys shared by {@link LongSet}, {@link LongIntMap} and
+ * {@link LongLongMap}, using open addressing with linear probing over a power
+ * of two array of longs, so that no keys are boxed.
+ * <p>
+ * Maps keep their values in arrays of their own, in the same slots as their
+ * keys. Removing a key shifts later keys back, and growing the table moves
+ * every key, so the table tells its subclass whenever an entry moves.
+ */
+abstract class LongKeyTable {
+
+    static final int DEFAULT_CAPACITY = 16;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * Zero marks an empty slot in the table, so whether the key zero is
+     * present is tracked separately, along with any value for it.
+     */
+    static final long FREE = 0L;
+
+    long[] keys;
+
+    int mask;
+
+    boolean containsFree;
+
+    private int size;
+
+    private int resizeAt;
+
+
+
+    /**
+     * @param expectedSize The number of keys the table should hold before
+     *            needing to grow.
+     */
+    LongKeyTable(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+
+
+    public int size() {
+        return size;
+    }
+
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+
+    /**
+     * Remove everything, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        containsFree = false;
+        size = 0;
+    }
+
+
+
+    /**
+     * @param key The key to look for.
+     * @return {@code true} if the key is in the table.
+     */
+    boolean hasKey(long key) {
+        return key == FREE ? containsFree : find(key) >= 0;
+    }
+
+
+
+    /**
+     * @param key The key to look for, which must not be {@link #FREE}.
+     * @return The slot holding the key, or -1 if it isn't in the table.
+     */
+    int find(long key) {
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+
+
+    /**
+     * Probe once for a key, for callers which either update or add it.
+     * 
+     * @param key The key to look for, which must not be {@link #FREE}.
+     * @return The slot holding the key, or the free slot where it belongs if
+     *         it isn't in the table.
+     */
+    int probe(long key) {
+        int slot = slot(key);
+        while (keys[slot] != FREE && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+
+
+    /**
+     * Count a key which has just been written, along with any value, into the
+     * free slot found by {@link #probe(long)}, and grow the table if it is now
+     * too full. Slots found before this call may no longer be valid after it.
+     */
+    void keyAdded() {
+        if (++size > resizeAt)
+            rehash(keys.length * 2);
+    }
+
+
+
+    /**
+     * @return {@code true} if the key zero was not already in the table.
+     */
+    boolean addFree() {
+        if (containsFree)
+            return false;
+        containsFree = true;
+        size++;
+        return true;
+    }
+
+
+
+    /**
+     * @return {@code true} if the key zero was in the table.
+     */
+    boolean removeFree() {
+        if (!containsFree)
+            return false;
+        containsFree = false;
+        size--;
+        return true;
+    }
+
+
+
+    /**
+     * @param slot A slot holding a key, which is removed.
+     */
+    void removeAt(int slot) {
+        shiftKeys(slot);
+        size--;
+    }
+
+
+
+    /**
+     * @return A stream of the keys in the table, in no particular order.
+     */
+    LongStream keyStream() {
+        var present = Arrays.stream(keys).filter(k -> k != FREE);
+        return containsFree ? LongStream.concat(LongStream.of(FREE), present) : present;
+    }
+
+
+
+    /**
+     * @return The number of slots in the table, which any value arrays need
+     *         to match.
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+
+
+    /**
+     * Move the value for a key which has been shifted back to fill a gap.
+     * 
+     * @param from The slot the key was in.
+     * @param to The slot it is in now.
+     */
+    abstract void moveValue(int from, int to);
+
+
+
+    /**
+     * Reallocate the values for a table which has grown, moving each to its
+     * key's new slot.
+     * 
+     * @param moves The new slot for the key in each old slot, or -1 for the
+     *            free slots.
+     * @param capacity The new number of slots.
+     */
+    abstract void rehashValues(int[] moves, int capacity);
+
+
+
+    /**
+     * Fill the gap left by a removed key by moving back any later keys in the
+     * same run which would no longer be reachable from their home slot.
+     * 
+     * @param slot The slot which has just been emptied.
+     */
+    private void shiftKeys(int slot) {
+        int last;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & mask;
+            long key;
+            while (true) {
+                key = keys[slot];
+                if (key == FREE) {
+                    keys[last] = FREE;
+                    return;
+                }
+                int home = slot(key);
+                if (last <= slot ? last >= home || home > slot : last >= home && home > slot)
+                    break;
+                slot = (slot + 1) & mask;
+            }
+            keys[last] = key;
+            moveValue(slot, last);
+        }
+    }
+
+
+
+    private int slot(long key) {
+        return mix(key) & mask;
+    }
+
+
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        allocate(capacity);
+        int[] moves = new int[oldKeys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE) {
+                moves[i] = -1;
+            } else {
+                int slot = probe(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                moves[i] = slot;
+            }
+        }
+        rehashValues(moves, capacity);
+    }
+
+
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+
+
+    /**
+     * Spread the bits of a key, so that keys which only differ in their upper
+     * bits (like the rows of packed coordinates) land in different slots.
+     * 
+     * @param key The key to hash.
+     * @return The mixed hash of the key.
+     */
+    static int mix(long key) {
+        long h = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+
+
+    /**
+     * @param expectedSize The number of keys to be held.
+     * @return The power of two table size which can hold that many keys
+     *         without growing.
+     */
+    static int tableSizeFor(int expectedSize) {
+        long needed = Math.max((long) Math.ceil(expectedSize / LOAD_FACTOR), 2);
+        return (int) Math.min(1L << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+}
@@ -0,0 +1,116 @@
+package aoc;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A set of primitive longs, using open addressing with linear probing so that
+ * no entries are boxed or allocated as values are added. Pairs well with
+ * {@link Coordinate#toLong()} for sets of coordinates.
+ */
+public final class LongSet extends LongKeyTable {
+
+    public LongSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+
+    /**
+     * @param expectedSize The number of values the set should hold before
+     *            needing to grow.
+     */
+    public LongSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+
+
+    /**
+     * @param value The value to add.
+     * @return {@code true} if the value was not already in the set.
+     */
+    public boolean add(long value) {
+        if (value == FREE)
+            return addFree();
+
+        int slot = probe(value);
+        if (keys[slot] == value)
+            return false;
+        keys[slot] = value;
+        keyAdded();
+        return true;
+    }
+
+
+
+    /**
+     * @param value The value to look for.
+     * @return {@code true} if the value is in the set.
+     */
+    public boolean contains(long value) {
+        return hasKey(value);
+    }
+
+
+
+    /**
+     * @param value The value to remove.
+     * @return {@code true} if the value was in the set.
+     */
+    public boolean remove(long value) {
+        if (value == FREE)
+            return removeFree();
+
+        int slot = find(value);
+        if (slot < 0)
+            return false;
+        removeAt(slot);
+        return true;
+    }
+
+
+
+    /**
+     * @param action The action to perform on each value in the set, in no
+     *            particular order.
+     */
+    public void forEach(LongConsumer action) {
+        if (containsFree)
+            action.accept(FREE);
+        for (long key : keys)
+            if (key != FREE)
+                action.accept(key);
+    }
+
+
+
+    /**
+     * @return A stream of the values in this set, in no particular order.
+     */
+    public LongStream stream() {
+        return keyStream();
+    }
+
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(stream().toArray());
+    }
+
+
+
+    @Override
+    void moveValue(int from, int to) {
+        // A set has no values to move
+    }
+
+
+
+    @Override
+    void rehashValues(int[] moves, int capacity) {
+        // A set has no values to move
+    }
+}
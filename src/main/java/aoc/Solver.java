@@ -0,0 +1,38 @@
+package aoc;
+
+/**
+ * A common way to run both parts of a day's puzzle, so that every day can be
+ * driven, timed and compared from a single entry point. Each day provides one
+ * as a nested class, which adapts its own parsing and {@code part1}/
+ * {@code part2} methods.
+ *
+ * @param <I> The type of the parsed input shared by both parts.
+ */
+public interface Solver<I> {
+
+    /**
+     * Read and parse an input file. The result is handed to both parts, in the
+     * same way each day's {@code main} shares its parsed input between them.
+     *
+     * @param fileName The name of a file which can be found on the classpath.
+     * @return The parsed input.
+     */
+    I parse(String fileName);
+
+
+
+    /**
+     * @param input The parsed input.
+     * @return The answer to part 1.
+     */
+    Object part1(I input);
+
+
+
+    /**
+     * @param input The parsed input.
+     * @return The answer to part 2, or {@code null} if the day has no second
+     *         part.
+     */
+    Object part2(I input);
+}
@@ -0,0 +1,157 @@
+package aoc;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A set of states on a grid, each a row, a column and one of a few
+ * directions, packed into a single bit of a {@code long[]}. Rows and columns
+ * start at 0, and a state's index is
+ * {@code (row * columns + column) * directions + direction}.
+ * <p>
+ * Each word of bits is stamped with the epoch it was last written in, and
+ * words from earlier epochs read as empty. {@link #clear()} just starts a new
+ * epoch, so a set can be reused for many walks over a large grid without
+ * wiping it each time.
+ */
+public final class VisitedStates {
+
+    private final int columns;
+
+    private final int directions;
+
+    private final long[] bits;
+
+    private final int[] epochs;
+
+    private int epoch = 1;
+
+    private int size;
+
+
+
+    /**
+     * @param rows The number of rows in the grid.
+     * @param columns The number of columns in the grid.
+     * @param directions The number of directions a state can have, or 1 to
+     *            only track cells.
+     */
+    public VisitedStates(int rows, int columns, int directions) {
+        this.columns = columns;
+        this.directions = directions;
+        int words = (int) (((long) rows * columns * directions + 63) >>> 6);
+        this.bits = new long[words];
+        this.epochs = new int[words];
+    }
+
+
+
+    /**
+     * Start from a given epoch, so that the wraparound can be reached without
+     * clearing the set billions of times.
+     *
+     * @param rows The number of rows in the grid.
+     * @param columns The number of columns in the grid.
+     * @param directions The number of directions a state can have.
+     * @param epoch The epoch to start in, which must not be 0.
+     */
+    VisitedStates(int rows, int columns, int directions, int epoch) {
+        this(rows, columns, directions);
+        this.epoch = epoch;
+    }
+
+
+
+    /**
+     * @param row The row, from 0.
+     * @param column The column, from 0.
+     * @param direction The direction, from 0.
+     * @return The index of the state.
+     */
+    public int index(int row, int column, int direction) {
+        return (row * columns + column) * directions + direction;
+    }
+
+
+
+    /**
+     * @param row The row, from 0.
+     * @param column The column, from 0.
+     * @param direction The direction, from 0.
+     * @return {@code true} if the state wasn't already in the set.
+     */
+    public boolean add(int row, int column, int direction) {
+        return add(index(row, column, direction));
+    }
+
+
+
+    /**
+     * @param index The index of a state.
+     * @return {@code true} if the state wasn't already in the set.
+     */
+    public boolean add(int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        if (epochs[word] != epoch) {
+            epochs[word] = epoch;
+            bits[word] = bit;
+        } else if ((bits[word] & bit) != 0) {
+            return false;
+        } else {
+            bits[word] |= bit;
+        }
+        size++;
+        return true;
+    }
+
+
+
+    /**
+     * @param index The index of a state.
+     * @return {@code true} if the state is in the set.
+     */
+    public boolean contains(int index) {
+        int word = index >>> 6;
+        return epochs[word] == epoch && (bits[word] & (1L << index)) != 0;
+    }
+
+
+
+    public int size() {
+        return size;
+    }
+
+
+
+    /**
+     * Empty the set, by starting a new epoch.
+     */
+    public void clear() {
+        if (++epoch == 0) {
+            // Every stamp could now be mistaken for the current epoch, so wipe them once
+            Arrays.fill(epochs, 0);
+            epoch = 1;
+        }
+        size = 0;
+    }
+
+
+
+    /**
+     * @return The indices of the states in the set, in ascending order.
+     */
+    public IntStream indices() {
+        return IntStream.range(0, bits.length)
+                        .filter(word -> epochs[word] == epoch)
+                        .flatMap(word -> {
+                            long remaining = bits[word];
+                            var builder = IntStream.builder();
+                            while (remaining != 0) {
+                                builder.add((word << 6) + Long.numberOfTrailingZeros(remaining));
+                                remaining &= remaining - 1;
+                            }
+                            return builder.build();
+                        });
+    }
+}
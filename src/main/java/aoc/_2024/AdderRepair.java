@@ -0,0 +1,244 @@
+package aoc._2024;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Finds which pairs of gates in a Day 24 circuit need their outputs swapped to
+ * make it a working ripple carry adder.
+ * <p>
+ * The search works up from the lowest output bit which comes out wrong. In a
+ * ripple carry adder, the gates for bit i of the sum only depend on bits 0 to
+ * i of the inputs, so {@link CompiledCircuit#gateLevels()} places each gate in
+ * a slice of the adder. A fault first seen at bit i has to involve a gate near
+ * that slice, so only pairs of gates within {@link #WINDOW} bits of it are
+ * tried, rather than every pair in the circuit. That keeps the number of
+ * candidates the same however many bits the adder has.
+ * <p>
+ * Each candidate swap is checked by running the circuit bit-sliced on random
+ * inputs, and only kept if it moves the lowest wrong bit higher. The circuit
+ * is run once for each set of inputs, and each candidate is then tried in
+ * place with {@link CompiledCircuit.Updater#updateSwapped(long[], int, int)},
+ * which only re-runs the gates whose inputs the swap changes, and undone
+ * again. Only the output bits it changed are compared with the expected sums,
+ * so a check costs as much as the swap's effect rather than the whole circuit.
+ * Candidates are ranked by how far up they get, and tried depth first with a
+ * budget of swaps which grows from zero, so the first repair found uses as few
+ * swaps as this search can manage. Only the candidates recursed into are
+ * copied as circuits of their own.
+ */
+public final class AdderRepair {
+
+    /**
+     * How many bits either side of the lowest wrong bit to look for gates to
+     * swap.
+     */
+    private static final int WINDOW = 1;
+
+    /**
+     * The number of sets of 64 random sums a circuit must get right to count
+     * as repaired.
+     */
+    private static final int PASSES = 4;
+
+    /**
+     * Utility classes have private constructors.
+     */
+    private AdderRepair() {
+    }
+
+
+
+    /**
+     * @param circuit The circuit to repair.
+     * @param maxSwaps The most pairs of outputs which can be swapped.
+     * @param random Where to get the inputs to test with.
+     * @return The names of the wires which need swapping, two for each swap,
+     *         or nothing if the circuit can't be repaired with that many
+     *         swaps.
+     */
+    public static Optional<List<String>> findSwaps(CompiledCircuit circuit, int maxSwaps, RandomGenerator random) {
+        for (int budget = 0; budget <= maxSwaps; budget++) {
+            var found = search(circuit, budget, random);
+            if (found != null)
+                return Optional.of(found);
+        }
+        return Optional.empty();
+    }
+
+
+
+    /**
+     * @param circuit The circuit to repair.
+     * @param budget The most swaps which can still be made.
+     * @param random Where to get the inputs to test with.
+     * @return The names of the wires swapped, or {@code null} if the budget
+     *         isn't enough.
+     */
+    private static List<String> search(CompiledCircuit circuit, int budget, RandomGenerator random) {
+        int firstError = circuit.firstAdderError(random, PASSES);
+        if (firstError < 0)
+            return new ArrayList<>();
+        if (budget == 0)
+            return null;
+
+        for (var candidate : candidates(circuit, firstError, random)) {
+            var rest = search(circuit.swapOutputs(candidate.gate1(), candidate.gate2()), budget - 1, random);
+            if (rest != null) {
+                rest.add(circuit.nameOf(circuit.outputOf(candidate.gate1())));
+                rest.add(circuit.nameOf(circuit.outputOf(candidate.gate2())));
+                return rest;
+            }
+        }
+        return null;
+    }
+
+
+
+    /**
+     * @param circuit The circuit to repair.
+     * @param firstError The lowest output bit which is wrong.
+     * @param random Where to get the inputs to test with.
+     * @return The swaps of gates near the wrong bit which move the lowest
+     *         wrong bit higher, those reaching furthest first.
+     */
+    static List<Swap> candidates(CompiledCircuit circuit, int firstError, RandomGenerator random) {
+        int[] levels = circuit.gateLevels();
+        int[] nearby = IntStream.range(0, levels.length)
+                                .filter(g -> Math.abs(levels[g] - firstError) <= WINDOW)
+                                .toArray();
+
+        var trial = new Trial(circuit, random);
+        List<Swap> swaps = new ArrayList<>();
+        for (int i = 0; i < nearby.length; i++)
+            for (int j = i + 1; j < nearby.length; j++) {
+                int error = trial.firstError(nearby[i], nearby[j]);
+                int reached = error < 0 ? Integer.MAX_VALUE : error;
+                if (error != Trial.LOOP && reached > firstError)
+                    swaps.add(new Swap(nearby[i], nearby[j], reached));
+            }
+        swaps.sort(Comparator.comparingInt(Swap::reached).reversed());
+        return swaps;
+    }
+
+
+
+    /**
+     * @param gate1 The index of one gate to swap.
+     * @param gate2 The index of the other.
+     * @param reached The lowest wrong output bit after swapping them, or
+     *            {@link Integer#MAX_VALUE} if there wasn't one.
+     */
+    record Swap(int gate1, int gate2, int reached) {
+    }
+
+
+
+    /**
+     * One set of 64 random sums, with the circuit already run on them, so that
+     * a swap can be checked in place by only re-running the gates it affects,
+     * then undone.
+     */
+    private static final class Trial {
+
+        /** What {@link #firstError(int, int)} gives for a swap making a loop. */
+        static final int LOOP = -2;
+
+        private final CompiledCircuit circuit;
+
+        private final CompiledCircuit.Updater updater;
+
+        private final long[] lanes;
+
+        private final long[] expected;
+
+        /** The output bit each wire carries, or -1 if it isn't an output. */
+        private final int[] outputBits;
+
+        /** The output bits which are wrong before any swap, lowest first. */
+        private final int[] wrong;
+
+        /** Which bits a swap being checked has put right. */
+        private final boolean[] fixed;
+
+
+
+        /**
+         * @param circuit The circuit before any swap.
+         * @param random Where to get the inputs.
+         */
+        Trial(CompiledCircuit circuit, RandomGenerator random) {
+            this.circuit = circuit;
+            this.updater = circuit.updater();
+            lanes = new long[circuit.wireCount()];
+            for (int i = 0; i < circuit.inputBits(); i++) {
+                lanes[circuit.xWire(i)] = random.nextLong();
+                lanes[circuit.yWire(i)] = random.nextLong();
+            }
+            circuit.evaluate(lanes);
+
+            expected = new long[circuit.outputBits()];
+            outputBits = new int[lanes.length];
+            Arrays.fill(outputBits, -1);
+            long carry = 0;
+            for (int i = 0; i < expected.length; i++) {
+                long x = i < circuit.inputBits() ? lanes[circuit.xWire(i)] : 0;
+                long y = i < circuit.inputBits() ? lanes[circuit.yWire(i)] : 0;
+                expected[i] = x ^ y ^ carry;
+                carry = (x & y) | (carry & (x ^ y));
+                outputBits[circuit.zWire(i)] = i;
+            }
+            wrong = IntStream.range(0, expected.length)
+                             .filter(i -> lanes[circuit.zWire(i)] != expected[i])
+                             .toArray();
+            fixed = new boolean[expected.length];
+        }
+
+
+
+        /**
+         * @param gate1 The index of one gate to swap.
+         * @param gate2 The index of the other.
+         * @return The lowest output bit which is wrong with the gates' outputs
+         *         swapped, -1 if all of them are right, or {@link #LOOP} if
+         *         the swap would make the gates form a loop.
+         */
+        int firstError(int gate1, int gate2) {
+            if (!updater.updateSwapped(lanes, gate1, gate2))
+                return LOOP;
+
+            // Only the bits the swap changed can differ from before
+            int first = Integer.MAX_VALUE;
+            for (int c = 0; c < updater.changes(); c++) {
+                int bit = outputBits[updater.changedWire(c)];
+                if (bit < 0)
+                    continue;
+                if (lanes[circuit.zWire(bit)] == expected[bit])
+                    fixed[bit] = true;
+                else
+                    first = Math.min(first, bit);
+            }
+            for (int bit : wrong) {
+                if (bit >= first)
+                    break;
+                if (!fixed[bit]) {
+                    first = bit;
+                    break;
+                }
+            }
+
+            for (int c = 0; c < updater.changes(); c++) {
+                int bit = outputBits[updater.changedWire(c)];
+                if (bit >= 0)
+                    fixed[bit] = false;
+            }
+            updater.undo(lanes);
+            return first == Integer.MAX_VALUE ? -1 : first;
+        }
+    }
+}
@@ -0,0 +1,827 @@
+package aoc._2024;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * A Day 24 circuit of gates and wires, compiled once so that it can be run
+ * many times cheaply.
+ * <p>
+ * Wire names are interned to indices, and the gates are sorted so that every
+ * gate comes after the gates driving its inputs. Running the circuit is then
+ * one pass over parallel arrays of opcodes and wire indices, with the wire
+ * values in a {@code boolean[]}, rather than polling a queue of gates until
+ * their inputs turn up in a map.
+ * <p>
+ * The wires {@code x00}, {@code x01}, ... and {@code y00}, ... are the bits of
+ * the two inputs, and {@code z00}, ... are the bits of the output, lowest
+ * first.
+ * <p>
+ * Since every gate is a pure bitwise operation, {@link #evaluate(long[])} can
+ * also run the circuit bit-sliced: each wire holds a {@code long} whose 64 bits
+ * are 64 independent runs. {@link #firstAdderError(RandomGenerator, int)} uses
+ * that to check the circuit adds correctly against 64 random pairs of inputs
+ * per pass, for inputs of any width.
+ * <p>
+ * Each wire also keeps the list of gates reading it, so that after changing a
+ * few wires an {@link Updater} only re-runs the gates downstream of them whose
+ * inputs actually changed, rather than the whole circuit. It can also try a
+ * swap of two gates' outputs in place and undo it again, without copying the
+ * circuit or the lanes.
+ */
+public final class CompiledCircuit {
+
+    static final byte AND = 0;
+
+    static final byte OR = 1;
+
+    static final byte XOR = 2;
+
+    private final String[] names;
+
+    private final Map<String, Integer> indices;
+
+    /** The gates, in the order they are evaluated. */
+    private final byte[] operations;
+
+    private final int[] inputs1;
+
+    private final int[] inputs2;
+
+    private final int[] outputs;
+
+    private final int[] xWires;
+
+    private final int[] yWires;
+
+    private final int[] zWires;
+
+    /** The gate driving each wire, or -1 for the inputs. */
+    private final int[] drivers;
+
+    /** Where each wire's readers start in {@link #readers}, with one extra entry for the end. */
+    private final int[] readerStart;
+
+    /** The gates reading each wire, in evaluation order. */
+    private final int[] readers;
+
+
+
+    private CompiledCircuit(String[] names, Map<String, Integer> indices, byte[] operations, int[] inputs1, int[] inputs2,
+                            int[] outputs, int[] xWires, int[] yWires, int[] zWires) {
+        this.names = names;
+        this.indices = indices;
+        this.operations = operations;
+        this.inputs1 = inputs1;
+        this.inputs2 = inputs2;
+        this.outputs = outputs;
+        this.xWires = xWires;
+        this.yWires = yWires;
+        this.zWires = zWires;
+
+        this.drivers = new int[names.length];
+        Arrays.fill(drivers, -1);
+        this.readerStart = new int[names.length + 1];
+        for (int g = 0; g < operations.length; g++) {
+            drivers[outputs[g]] = g;
+            readerStart[inputs1[g] + 1]++;
+            readerStart[inputs2[g] + 1]++;
+        }
+        for (int w = 0; w < names.length; w++)
+            readerStart[w + 1] += readerStart[w];
+        this.readers = new int[operations.length * 2];
+        int[] filled = Arrays.copyOf(readerStart, names.length);
+        for (int g = 0; g < operations.length; g++) {
+            readers[filled[inputs1[g]]++] = g;
+            readers[filled[inputs2[g]]++] = g;
+        }
+    }
+
+
+
+    /**
+     * A copy of another circuit with different outputs, in the same order,
+     * sharing everything which doesn't depend on the outputs.
+     */
+    private CompiledCircuit(CompiledCircuit other, int[] outputs, int[] drivers) {
+        this.names = other.names;
+        this.indices = other.indices;
+        this.operations = other.operations;
+        this.inputs1 = other.inputs1;
+        this.inputs2 = other.inputs2;
+        this.outputs = outputs;
+        this.xWires = other.xWires;
+        this.yWires = other.yWires;
+        this.zWires = other.zWires;
+        this.drivers = drivers;
+        this.readerStart = other.readerStart;
+        this.readers = other.readers;
+    }
+
+
+
+    /**
+     * Compile the gates of a circuit. Any lines which aren't gates, like the
+     * initial wire values, are ignored.
+     *
+     * @param lines Lines such as {@code x00 AND y00 -> z00}.
+     * @return The compiled circuit.
+     * @throws IllegalArgumentException If a gate is unknown, a wire is driven
+     *             by more than one gate, or the gates form a loop.
+     */
+    public static CompiledCircuit compile(List<String> lines) {
+        Map<String, Integer> indices = new HashMap<>();
+        List<String> names = new ArrayList<>();
+
+        var gates = lines.stream().filter(l -> l.contains("->")).map(l -> l.split(" ")).toList();
+        int count = gates.size();
+        byte[] operations = new byte[count];
+        int[] inputs1 = new int[count];
+        int[] inputs2 = new int[count];
+        int[] outputs = new int[count];
+        for (int g = 0; g < count; g++) {
+            var gate = gates.get(g);
+            operations[g] = switch (gate[1]) {
+                case "AND" -> AND;
+                case "OR" -> OR;
+                case "XOR" -> XOR;
+                default -> throw new IllegalArgumentException("Unknown gate: " + gate[1]);
+            };
+            inputs1[g] = intern(gate[0], indices, names);
+            inputs2[g] = intern(gate[2], indices, names);
+            outputs[g] = intern(gate[4], indices, names);
+        }
+
+        int[] order = sort(names.size(), inputs1, inputs2, outputs);
+        if (order == null)
+            throw new IllegalArgumentException("The gates form a loop.");
+
+        String[] wireNames = names.toArray(String[]::new);
+        return new CompiledCircuit(wireNames, indices,
+                                   permute(operations, order), permute(inputs1, order), permute(inputs2, order),
+                                   permute(outputs, order),
+                                   numberedWires(wireNames, 'x'), numberedWires(wireNames, 'y'), numberedWires(wireNames, 'z'));
+    }
+
+
+
+    /**
+     * @return The number of distinct wires in the circuit.
+     */
+    public int wireCount() {
+        return names.length;
+    }
+
+
+
+    /**
+     * @return The number of gates in the circuit.
+     */
+    public int gateCount() {
+        return operations.length;
+    }
+
+
+
+    /**
+     * @param name The name of a wire.
+     * @return The index of the wire, or -1 if the circuit doesn't have it.
+     */
+    public int indexOf(String name) {
+        return indices.getOrDefault(name, -1);
+    }
+
+
+
+    /**
+     * @param index The index of a wire.
+     * @return The name of the wire.
+     */
+    public String nameOf(int index) {
+        return names[index];
+    }
+
+
+
+    /**
+     * @return The number of bits in each input, from the x wires.
+     */
+    public int inputBits() {
+        return xWires.length;
+    }
+
+
+
+    /**
+     * @return The number of bits in the output, from the z wires.
+     */
+    public int outputBits() {
+        return zWires.length;
+    }
+
+
+
+    /**
+     * @param bit A bit of the x input.
+     * @return The index of the wire carrying it.
+     */
+    public int xWire(int bit) {
+        return xWires[bit];
+    }
+
+
+
+    /**
+     * @param bit A bit of the y input.
+     * @return The index of the wire carrying it.
+     */
+    public int yWire(int bit) {
+        return yWires[bit];
+    }
+
+
+
+    /**
+     * @param bit A bit of the output.
+     * @return The index of the wire carrying it.
+     */
+    public int zWire(int bit) {
+        return zWires[bit];
+    }
+
+
+
+    /**
+     * Run the circuit, setting every gate's output wire from its inputs.
+     *
+     * @param values The value of each wire, by index, with the inputs already
+     *            set.
+     */
+    public void evaluate(boolean[] values) {
+        for (int g = 0; g < operations.length; g++) {
+            boolean a = values[inputs1[g]];
+            boolean b = values[inputs2[g]];
+            values[outputs[g]] = switch (operations[g]) {
+                case AND -> a & b;
+                case OR -> a | b;
+                default -> a ^ b;
+            };
+        }
+    }
+
+
+
+    /**
+     * Run the circuit on 64 sets of values at once, one in each bit of every
+     * wire's lane.
+     *
+     * @param lanes The values of each wire, by index, with the inputs already
+     *            set.
+     */
+    public void evaluate(long[] lanes) {
+        for (int g = 0; g < operations.length; g++) {
+            long a = lanes[inputs1[g]];
+            long b = lanes[inputs2[g]];
+            lanes[outputs[g]] = switch (operations[g]) {
+                case AND -> a & b;
+                case OR -> a | b;
+                default -> a ^ b;
+            };
+        }
+    }
+
+
+
+    /**
+     * @return A new updater for bringing lanes of this circuit up to date
+     *         after some wires change, or for trying a swap of two gates'
+     *         outputs in place.
+     */
+    public Updater updater() {
+        return new Updater();
+    }
+
+
+
+    /**
+     * Check the circuit adds x and y onto z, with random inputs, 64 pairs at
+     * a time. The expected sum is worked out bit-sliced too, rippling a lane
+     * of carries up through the bits.
+     *
+     * @param random Where to get the inputs.
+     * @param passes How many sets of 64 pairs to try.
+     * @return The lowest z bit which was ever wrong, or -1 if every sum was
+     *         right.
+     */
+    public int firstAdderError(RandomGenerator random, int passes) {
+        long[] lanes = new long[names.length];
+        int first = -1;
+        for (int pass = 0; pass < passes; pass++) {
+            for (int i = 0; i < xWires.length; i++)
+                lanes[xWires[i]] = random.nextLong();
+            for (int i = 0; i < yWires.length; i++)
+                lanes[yWires[i]] = random.nextLong();
+            evaluate(lanes);
+
+            int limit = first < 0 ? zWires.length : first;
+            long carry = 0;
+            for (int i = 0; i < limit; i++) {
+                long x = i < xWires.length ? lanes[xWires[i]] : 0;
+                long y = i < yWires.length ? lanes[yWires[i]] : 0;
+                if (lanes[zWires[i]] != (x ^ y ^ carry)) {
+                    first = i;
+                    break;
+                }
+                carry = (x & y) | (carry & (x ^ y));
+            }
+        }
+        return first;
+    }
+
+
+
+    /**
+     * @param gate The index of a gate, in evaluation order.
+     * @return The index of the wire the gate drives.
+     */
+    public int outputOf(int gate) {
+        return outputs[gate];
+    }
+
+
+
+    /**
+     * Work out how far up the inputs each gate reaches. In a ripple carry
+     * adder, the gates for bit i of the sum only depend on bits 0 to i of the
+     * inputs, so a gate's level says which bit's slice of the adder it belongs
+     * to.
+     *
+     * @return For each gate, in evaluation order, the highest bit of x or y
+     *         it depends on, or -1 if it depends on neither.
+     */
+    public int[] gateLevels() {
+        int[] wireLevels = new int[names.length];
+        Arrays.fill(wireLevels, -1);
+        for (int i = 0; i < xWires.length; i++)
+            wireLevels[xWires[i]] = i;
+        for (int i = 0; i < yWires.length; i++)
+            wireLevels[yWires[i]] = Math.max(wireLevels[yWires[i]], i);
+
+        int[] levels = new int[operations.length];
+        for (int g = 0; g < operations.length; g++) {
+            levels[g] = Math.max(wireLevels[inputs1[g]], wireLevels[inputs2[g]]);
+            wireLevels[outputs[g]] = levels[g];
+        }
+        return levels;
+    }
+
+
+
+    /**
+     * @param gate1 The index of a gate.
+     * @param gate2 The index of another gate.
+     * @return A copy of this circuit with the two gates' output wires swapped,
+     *         or {@code null} if that would make the gates form a loop.
+     */
+    public CompiledCircuit swapOutputs(int gate1, int gate2) {
+        int wire1 = outputs[gate1];
+        int wire2 = outputs[gate2];
+        int[] swapped = outputs.clone();
+        swapped[gate1] = wire2;
+        swapped[gate2] = wire1;
+
+        if (readAfter(wire2, gate1) && readAfter(wire1, gate2)) {
+            // Every gate still comes after the gates driving it, so keep the order
+            int[] swappedDrivers = drivers.clone();
+            swappedDrivers[wire1] = gate2;
+            swappedDrivers[wire2] = gate1;
+            return new CompiledCircuit(this, swapped, swappedDrivers);
+        }
+
+        int[] order = sort(names.length, inputs1, inputs2, swapped);
+        if (order == null)
+            return null;
+
+        return new CompiledCircuit(names, indices, permute(operations, order), permute(inputs1, order),
+                                   permute(inputs2, order), permute(swapped, order), xWires, yWires, zWires);
+    }
+
+
+
+    /**
+     * @param wire A wire.
+     * @param gate The index of a gate.
+     * @return {@code true} if every gate reading the wire comes after the
+     *         gate.
+     */
+    private boolean readAfter(int wire, int gate) {
+        for (int r = readerStart[wire]; r < readerStart[wire + 1]; r++)
+            if (readers[r] <= gate)
+                return false;
+        return true;
+    }
+
+
+
+    /**
+     * Run the circuit with the given inputs on the x and y wires.
+     *
+     * @param x The value for the x wires, of which the lowest
+     *            {@link #inputBits()} bits are used.
+     * @param y The value for the y wires.
+     * @return The value on the z wires, of which at most the lowest 64 bits
+     *         are kept.
+     */
+    public long evaluate(long x, long y) {
+        boolean[] values = new boolean[names.length];
+        for (int i = 0; i < xWires.length && i < Long.SIZE; i++)
+            values[xWires[i]] = (x >>> i & 1) != 0;
+        for (int i = 0; i < yWires.length && i < Long.SIZE; i++)
+            values[yWires[i]] = (y >>> i & 1) != 0;
+        evaluate(values);
+        return outputValue(values);
+    }
+
+
+
+    /**
+     * @param values The value of each wire, by index, after running.
+     * @return The value on the z wires, of which at most the lowest 64 bits
+     *         are kept.
+     */
+    public long outputValue(boolean[] values) {
+        long z = 0;
+        for (int i = 0; i < zWires.length && i < Long.SIZE; i++)
+            if (values[zWires[i]])
+                z |= 1L << i;
+        return z;
+    }
+
+
+
+    private static int intern(String name, Map<String, Integer> indices, List<String> names) {
+        return indices.computeIfAbsent(name, n -> {
+            names.add(n);
+            return names.size() - 1;
+        });
+    }
+
+
+
+    /**
+     * Order the gates so that each comes after the gates driving its inputs,
+     * with Kahn's algorithm.
+     *
+     * @param wires The number of wires.
+     * @param inputs1 The first input wire of each gate.
+     * @param inputs2 The second input wire of each gate.
+     * @param outputs The output wire of each gate.
+     * @return The indices of the gates in order, or {@code null} if they form
+     *         a loop.
+     * @throws IllegalArgumentException If a wire is driven by more than one
+     *             gate.
+     */
+    static int[] sort(int wires, int[] inputs1, int[] inputs2, int[] outputs) {
+        int gates = outputs.length;
+        int[] driver = new int[wires];
+        Arrays.fill(driver, -1);
+        for (int g = 0; g < gates; g++) {
+            if (driver[outputs[g]] >= 0)
+                throw new IllegalArgumentException("More than one gate drives a wire.");
+            driver[outputs[g]] = g;
+        }
+
+        // Count each gate's inputs which are driven by other gates, and list who reads each wire
+        int[] waiting = new int[gates];
+        int[] readerStart = new int[wires + 1];
+        for (int g = 0; g < gates; g++) {
+            readerStart[inputs1[g] + 1]++;
+            readerStart[inputs2[g] + 1]++;
+            waiting[g] = (driver[inputs1[g]] >= 0 ? 1 : 0) + (driver[inputs2[g]] >= 0 ? 1 : 0);
+        }
+        for (int w = 0; w < wires; w++)
+            readerStart[w + 1] += readerStart[w];
+        int[] readers = new int[gates * 2];
+        int[] filled = Arrays.copyOf(readerStart, wires);
+        for (int g = 0; g < gates; g++) {
+            readers[filled[inputs1[g]]++] = g;
+            readers[filled[inputs2[g]]++] = g;
+        }
+
+        int[] order = new int[gates];
+        int head = 0;
+        int tail = 0;
+        for (int g = 0; g < gates; g++)
+            if (waiting[g] == 0)
+                order[tail++] = g;
+        while (head < tail) {
+            int out = outputs[order[head++]];
+            for (int r = readerStart[out]; r < readerStart[out + 1]; r++)
+                if (--waiting[readers[r]] == 0)
+                    order[tail++] = readers[r];
+        }
+        return tail == gates ? order : null;
+    }
+
+
+
+    private static byte[] permute(byte[] values, int[] order) {
+        byte[] permuted = new byte[order.length];
+        for (int i = 0; i < order.length; i++)
+            permuted[i] = values[order[i]];
+        return permuted;
+    }
+
+
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] permuted = new int[order.length];
+        for (int i = 0; i < order.length; i++)
+            permuted[i] = values[order[i]];
+        return permuted;
+    }
+
+
+
+    /**
+     * @param names The names of the wires, by index.
+     * @param prefix The letter the wires start with.
+     * @return The indices of the wires named with the letter and a number,
+     *         by that number.
+     */
+    private static int[] numberedWires(String[] names, char prefix) {
+        List<Integer> found = new ArrayList<>();
+        for (int w = 0; w < names.length; w++)
+            if (names[w].length() > 1 && names[w].charAt(0) == prefix &&
+                names[w].substring(1).chars().allMatch(Character::isDigit)) {
+                int bit = Integer.parseInt(names[w].substring(1));
+                while (found.size() <= bit)
+                    found.add(-1);
+                found.set(bit, w);
+            }
+        if (found.contains(-1))
+            throw new IllegalArgumentException("The " + prefix + " wires aren't numbered from 0 without gaps.");
+        return found.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+
+    /**
+     * Brings the lanes of this circuit up to date after some wires change,
+     * re-running only the gates whose inputs actually changed.
+     * <p>
+     * Gates are queued as their inputs change and re-run lowest first, so in
+     * evaluation order. After a swap, a gate can come before the gate now
+     * driving one of its inputs, and is then simply queued again when that
+     * input changes. Every wire the updater changes is kept in a journal, so
+     * that the lanes can be put back as they were, which lets a candidate swap
+     * be checked and undone in place.
+     * <p>
+     * Everything is allocated once and cleared as it is used, so each update
+     * only costs as much as the gates it re-runs. An updater must only be used
+     * by one thread at a time.
+     */
+    public final class Updater {
+
+        /** The queued gates, as a binary heap with the lowest index first. */
+        private final int[] heap = new int[operations.length];
+
+        private int queueSize;
+
+        /** Whether each gate is in the heap, cleared as each is taken off. */
+        private final boolean[] queued = new boolean[operations.length];
+
+        /** When each gate was last reached looking for loops. */
+        private final int[] visited = new int[operations.length];
+
+        private int visit;
+
+        private final int[] stack = new int[operations.length];
+
+        /** The gates whose outputs are swapped in the current update, or -1. */
+        private int swapped1 = -1;
+
+        private int swapped2 = -1;
+
+        private int[] journalWires = new int[64];
+
+        private long[] journalValues = new long[64];
+
+        private int journalSize;
+
+
+
+        private Updater() {
+        }
+
+
+
+        /**
+         * Bring the lanes up to date after some wires change.
+         *
+         * @param lanes The values of each wire, by index, which were up to
+         *            date before the change, and which have the changed inputs
+         *            set.
+         * @param wires The input wires which were given new values.
+         */
+        public void update(long[] lanes, int... wires) {
+            journalSize = 0;
+            swapped1 = swapped2 = -1;
+            for (int wire : wires)
+                queueReaders(wire);
+            propagate(lanes);
+        }
+
+
+
+        /**
+         * Bring the lanes up to date as if the two gates' output wires were
+         * swapped, without changing the circuit. Use {@link #undo(long[])} to
+         * put the lanes back afterwards.
+         *
+         * @param lanes The values of each wire, by index, which are up to date
+         *            for the circuit as it is.
+         * @param gate1 The index of a gate.
+         * @param gate2 The index of another gate.
+         * @return {@code true} if the lanes were updated, or {@code false},
+         *         leaving them alone, if the swap would make the gates form a
+         *         loop.
+         */
+        public boolean updateSwapped(long[] lanes, int gate1, int gate2) {
+            journalSize = 0;
+            swapped1 = gate1;
+            swapped2 = gate2;
+            if (formsLoop(gate1) || formsLoop(gate2)) {
+                swapped1 = swapped2 = -1;
+                return false;
+            }
+            enqueue(gate1);
+            enqueue(gate2);
+            propagate(lanes);
+            swapped1 = swapped2 = -1;
+            return true;
+        }
+
+
+
+        /**
+         * Put back every wire changed by the last update.
+         *
+         * @param lanes The lanes which were updated.
+         */
+        public void undo(long[] lanes) {
+            while (journalSize > 0) {
+                journalSize--;
+                lanes[journalWires[journalSize]] = journalValues[journalSize];
+            }
+        }
+
+
+
+        /**
+         * @return The number of wire changes made by the last update.
+         */
+        public int changes() {
+            return journalSize;
+        }
+
+
+
+        /**
+         * @param change A change made by the last update, from 0.
+         * @return The wire it changed, which may be changed more than once.
+         */
+        public int changedWire(int change) {
+            return journalWires[change];
+        }
+
+
+
+        private void propagate(long[] lanes) {
+            while (queueSize > 0) {
+                int g = dequeue();
+                long a = lanes[inputs1[g]];
+                long b = lanes[inputs2[g]];
+                long value = switch (operations[g]) {
+                    case AND -> a & b;
+                    case OR -> a | b;
+                    default -> a ^ b;
+                };
+                int out = output(g);
+                if (value != lanes[out]) {
+                    record(out, lanes[out]);
+                    lanes[out] = value;
+                    queueReaders(out);
+                }
+            }
+        }
+
+
+
+        /**
+         * @param gate The index of a gate.
+         * @return The wire the gate drives, allowing for any swap being tried.
+         */
+        private int output(int gate) {
+            if (gate == swapped1)
+                return outputs[swapped2];
+            if (gate == swapped2)
+                return outputs[swapped1];
+            return outputs[gate];
+        }
+
+
+
+        /**
+         * Look for a path from a gate back to itself with the swap being
+         * tried. Without a swap the gates only ever feed later gates, so any
+         * loop has to go through one of the swapped gates, and can't reach a
+         * gate later than both of them. Only gates up to there are searched.
+         *
+         * @param gate One of the swapped gates.
+         * @return {@code true} if the gate would feed back into itself.
+         */
+        private boolean formsLoop(int gate) {
+            int limit = Math.max(swapped1, swapped2);
+            if (++visit == 0) {
+                Arrays.fill(visited, 0);
+                visit = 1;
+            }
+            int top = 0;
+            stack[top++] = gate;
+            while (top > 0) {
+                int out = output(stack[--top]);
+                for (int r = readerStart[out]; r < readerStart[out + 1]; r++) {
+                    int reader = readers[r];
+                    if (reader == gate)
+                        return true;
+                    if (reader <= limit && visited[reader] != visit) {
+                        visited[reader] = visit;
+                        stack[top++] = reader;
+                    }
+                }
+            }
+            return false;
+        }
+
+
+
+        private void record(int wire, long value) {
+            if (journalSize == journalWires.length) {
+                journalWires = Arrays.copyOf(journalWires, journalSize * 2);
+                journalValues = Arrays.copyOf(journalValues, journalSize * 2);
+            }
+            journalWires[journalSize] = wire;
+            journalValues[journalSize++] = value;
+        }
+
+
+
+        private void queueReaders(int wire) {
+            for (int r = readerStart[wire]; r < readerStart[wire + 1]; r++)
+                enqueue(readers[r]);
+        }
+
+
+
+        private void enqueue(int gate) {
+            if (queued[gate])
+                return;
+            queued[gate] = true;
+            int i = queueSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= gate)
+                    break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = gate;
+        }
+
+
+
+        private int dequeue() {
+            int first = heap[0];
+            queued[first] = false;
+            int last = heap[--queueSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= queueSize)
+                    break;
+                if (child + 1 < queueSize && heap[child + 1] < heap[child])
+                    child++;
+                if (heap[child] >= last)
+                    break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return first;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package aoc._2024;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A program for the {@link Computer} from Day 17, decoded once into a flat
+ * array so that it can be run many times over primitive registers. Each run
+ * gives exactly the same output and final registers as {@link Computer#run},
+ * without boxing the registers or looking each instruction up as it goes.
+ */
+public final class CompiledProgram {
+
+    /** The number of runs of a batch to step through together. */
+    private static final int BATCH_BLOCK_SIZE = 1024;
+
+    private final int[] code;
+
+
+
+    private CompiledProgram(int[] code) {
+        this.code = code;
+    }
+
+
+
+    /**
+     * @param program The program instructions and inputs.
+     * @return The program, ready to run.
+     */
+    public static CompiledProgram compile(List<Integer> program) {
+        return new CompiledProgram(program.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+
+
+    /**
+     * @return The number of instructions and inputs in the program.
+     */
+    public int size() {
+        return code.length;
+    }
+
+
+
+    /**
+     * Run the program from scratch, with only the A register set.
+     *
+     * @param aRegister The value to initialize the A register with.
+     * @return The output of running the program.
+     */
+    public List<Integer> run(long aRegister) {
+        var computer = new Computer();
+        computer.registers().put(Computer.REGISTER_A, aRegister);
+        run(computer);
+        return computer.output();
+    }
+
+
+
+    /**
+     * Run the program on a computer, starting from its current registers and
+     * instruction pointer, in the same way as {@link Computer#run(List)}. The
+     * registers are written back, and the output added to, once the program
+     * halts.
+     *
+     * @param computer The computer to run the program on.
+     */
+    public void run(Computer computer) {
+        var registers = computer.registers();
+        var machine = new RegisterComputer();
+        machine.setA(registers.get(Computer.REGISTER_A));
+        machine.setB(registers.get(Computer.REGISTER_B));
+        machine.setC(registers.get(Computer.REGISTER_C));
+        machine.setInstructionPointer(registers.get(Computer.INSTRUCTION_POINTER).intValue());
+
+        run(machine);
+
+        registers.put(Computer.REGISTER_A, machine.getA());
+        registers.put(Computer.REGISTER_B, machine.getB());
+        registers.put(Computer.REGISTER_C, machine.getC());
+        registers.put(Computer.INSTRUCTION_POINTER, (long) machine.getInstructionPointer());
+        computer.output().addAll(machine.getOutput());
+    }
+
+
+
+    /**
+     * Run the program on a computer, starting from its current registers and
+     * instruction pointer, in the same way as
+     * {@link RegisterComputer#run(int[])}. Nothing is allocated unless the
+     * computer's output buffer has to grow.
+     *
+     * @param machine The computer to run the program on.
+     */
+    public void run(RegisterComputer machine) {
+        long a = machine.getA();
+        long b = machine.getB();
+        long c = machine.getC();
+        int ip = machine.getInstructionPointer();
+
+        while (ip < code.length) {
+            int operand = code[ip + 1];
+            switch (code[ip]) {
+                case 0 -> a = divide(a, combo(operand, a, b, c));
+                case 1 -> b ^= operand;
+                case 2 -> b = combo(operand, a, b, c) % 8;
+                case 3 -> {
+                    if (a != 0) {
+                        ip = operand;
+                        continue;
+                    }
+                }
+                case 4 -> b ^= c;
+                case 5 -> machine.addOutput((int) (combo(operand, a, b, c) % 8));
+                case 6 -> b = divide(a, combo(operand, a, b, c));
+                case 7 -> c = divide(a, combo(operand, a, b, c));
+                default -> throw new IllegalArgumentException("Unknown opcode " + code[ip]);
+            }
+            ip += 2;
+        }
+
+        machine.setA(a);
+        machine.setB(b);
+        machine.setC(c);
+        machine.setInstructionPointer(ip);
+    }
+
+
+
+    /**
+     * Run the program once for each starting value of register A, with the
+     * other registers starting at 0. The runs are held structure-of-arrays
+     * style, and stepped together: each pass executes one instruction for
+     * every run which has reached it, in a tight loop over primitive arrays,
+     * and runs drop out of the batch as they halt. Large batches are worked
+     * through in blocks, so that each block's registers stay in cache.
+     *
+     * @param aValues The starting values of register A, none of which may be
+     *            negative.
+     * @param capacity The number of output values to keep for each run.
+     * @return The output of each run, in the same order as the values of A.
+     */
+    public PackedOutputs runBatch(long[] aValues, int capacity) {
+        for (long a : aValues)
+            if (a < 0)
+                throw new IllegalArgumentException("Register A cannot start negative: " + a);
+
+        var outputs = new PackedOutputs(aValues.length, capacity);
+        int blockSize = Math.min(aValues.length, BATCH_BLOCK_SIZE);
+        long[] a = new long[blockSize];
+        long[] b = new long[blockSize];
+        long[] c = new long[blockSize];
+        int[] ip = new int[blockSize];
+        int[] active = new int[blockSize];
+
+        for (int from = 0; from < aValues.length; from += blockSize) {
+            int runs = Math.min(blockSize, aValues.length - from);
+            System.arraycopy(aValues, from, a, 0, runs);
+            Arrays.fill(b, 0);
+            Arrays.fill(c, 0);
+            Arrays.fill(ip, 0);
+            runBlock(a, b, c, ip, active, runs, outputs, from);
+        }
+
+        return outputs;
+    }
+
+
+
+    /**
+     * Run one block of a batch to completion.
+     *
+     * @param a The A register of each run.
+     * @param b The B register of each run.
+     * @param c The C register of each run.
+     * @param ip The instruction pointer of each run.
+     * @param active Space for the indices of the runs still going.
+     * @param runs The number of runs in this block.
+     * @param outputs Where to record the output.
+     * @param offset The index in the outputs of the first run in this block.
+     */
+    private void runBlock(long[] a, long[] b, long[] c, int[] ip, int[] active, int runs, PackedOutputs outputs,
+                          int offset) {
+        int activeCount = code.length > 0 ? runs : 0;
+        for (int run = 0; run < activeCount; run++)
+            active[run] = run;
+
+        while (activeCount > 0) {
+            // Step every run at the same instruction as the first one still going
+            int at = ip[active[0]];
+            int opcode = code[at];
+            int operand = code[at + 1];
+            // Resolve the combo operand once for the whole pass
+            boolean usesCombo = opcode == 0 || opcode == 2 || opcode >= 5;
+            long literal = usesCombo && operand <= 3 ? operand : 0;
+            long[] register = !usesCombo ? null : switch (operand) {
+                case 0, 1, 2, 3 -> null;
+                case 4 -> a;
+                case 5 -> b;
+                case 6 -> c;
+                case 7 -> throw new IllegalArgumentException("Invalid program");
+                default -> throw new IllegalArgumentException("Unexpected value: " + operand);
+            };
+
+            switch (opcode) {
+                case 0 -> {
+                    for (int i = 0; i < activeCount; i++) {
+                        int run = active[i];
+                        if (ip[run] == at) {
+                            a[run] = divide(a[run], register == null ? literal : register[run]);
+                            ip[run] += 2;
+                        }
+                    }
+                }
+                case 1 -> {
+                    for (int i = 0; i < activeCount; i++) {
+                        int run = active[i];
+                        if (ip[run] == at) {
+                            b[run] ^= operand;
+                            ip[run] += 2;
+                        }
+                    }
+                }
+                case 2 -> {
+                    for (int i = 0; i < activeCount; i++) {
+                        int run = active[i];
+                        if (ip[run] == at) {
+                            b[run] = (register == null ? literal : register[run]) % 8;
+                            ip[run] += 2;
+                        }
+                    }
+                }
+                case 3 -> {
+                    for (int i = 0; i < activeCount; i++) {
+                        int run = active[i];
+                        if (ip[run] == at)
+                            ip[run] = a[run] != 0 ? operand : at + 2;
+                    }
+                }
+                case 4 -> {
+                    for (int i = 0; i < activeCount; i++) {
+                        int run = active[i];
+                        if (ip[run] == at) {
+                            b[run] ^= c[run];
+                            ip[run] += 2;
+                        }
+                    }
+                }
+                case 5 -> {
+                    for (int i = 0; i < activeCount; i++) {
+                        int run = active[i];
+                        if (ip[run] == at) {
+                            outputs.add(offset + run, (int) ((register == null ? literal : register[run]) % 8));
+                            ip[run] += 2;
+                        }
+                    }
+                }
+                case 6, 7 -> {
+                    long[] target = opcode == 6 ? b : c;
+                    for (int i = 0; i < activeCount; i++) {
+                        int run = active[i];
+                        if (ip[run] == at) {
+                            target[run] = divide(a[run], register == null ? literal : register[run]);
+                            ip[run] += 2;
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown opcode " + opcode);
+            }
+
+            // Only a jump, or running off the end, can halt a run
+            if (opcode == 3 || at + 2 >= code.length) {
+                int kept = 0;
+                for (int i = 0; i < activeCount; i++)
+                    if (ip[active[i]] < code.length)
+                        active[kept++] = active[i];
+                activeCount = kept;
+            }
+        }
+    }
+
+
+
+    /**
+     * Divide by a power of two, truncating the result, the same way as the adv,
+     * bdv and cdv instructions. Shifting gives the same answer as dividing
+     * through a double while the numerator fits exactly in one, so only
+     * numbers outside that range take the slow path.
+     *
+     * @param numerator The value to divide.
+     * @param exponent The power of two to divide by.
+     * @return The truncated result of the division.
+     */
+    static long divide(long numerator, long exponent) {
+        if (numerator >= 0 && numerator < 1L << 53 && exponent >= 0)
+            return exponent < 63 ? numerator >> exponent : 0;
+        return (long) (numerator / Math.pow(2, exponent));
+    }
+
+
+
+    /**
+     * @param operand The combo operand of an instruction.
+     * @param a The A register.
+     * @param b The B register.
+     * @param c The C register.
+     * @return The value the operand stands for.
+     */
+    static long combo(int operand, long a, long b, long c) {
+        return switch (operand) {
+            case 0, 1, 2, 3 -> operand;
+            case 4 -> a;
+            case 5 -> b;
+            case 6 -> c;
+            case 7 -> throw new IllegalArgumentException("Invalid program");
+            default -> throw new IllegalArgumentException("Unexpected value: " + operand);
+        };
+    }
+}
@@ -13,6 +13,9 @@ import java.util.stream.Stream;
 
 /**
  * A representation of a computer from Day 17.
+ * 
+ * @see RegisterComputer RegisterComputer, for running programs many times
+ *      without allocating.
  */
 public record Computer(Map<String, Long> registers, List<Integer> output) {
 
@@ -48,6 +51,38 @@ public record Computer(Map<String, Long> registers, List<Integer> output) {
 
 
 
+    /**
+     * Execute the entire program, profiling every instruction.
+     * 
+     * @param program The program instructions and inputs.
+     * @param profile Where to record what the program does.
+     */
+    public void run(List<Integer> program, InstructionProfile profile) {
+        long start = System.nanoTime();
+        while (this.step(program, profile))
+            ;
+        profile.addTime(System.nanoTime() - start);
+    }
+
+
+
+    /**
+     * Run the same program once for each of a batch of starting values of
+     * register A, with the other registers starting at 0.
+     * 
+     * @param aValues The starting values of register A, none of which may be
+     *            negative.
+     * @param program The program instructions and inputs.
+     * @return The output of each run, packed, with room for as many values as
+     *         there are in the program.
+     * @see CompiledProgram#runBatch(long[], int)
+     */
+    public static PackedOutputs runBatch(long[] aValues, List<Integer> program) {
+        return CompiledProgram.compile(program).runBatch(aValues, program.size());
+    }
+
+
+
     /**
      * Execute the next instruction in the program based on the instruction
      * pointer.
@@ -69,6 +104,30 @@ public record Computer(Map<String, Long> registers, List<Integer> output) {
 
 
 
+    /**
+     * Execute the next instruction, as {@link #step(List)} does, recording it
+     * in a profile.
+     * 
+     * @param program The program instructions and inputs.
+     * @param profile Where to record the instruction.
+     * @return {@code true} if the program can continue. {@code false} if the
+     *         instruction pointer is past the end of the program.
+     */
+    public boolean step(List<Integer> program, InstructionProfile profile) {
+        int ip = getInstructionPointer();
+        if (ip < program.size()) {
+            var instruction = Instruction.fromOpcode(program.get(ip));
+            int input = program.get(ip + 1);
+            boolean jumped = instruction == Instruction.JNZ && this.registers.get(REGISTER_A) != 0;
+
+            instruction.execute(this, input);
+            profile.record(instruction, jumped);
+        }
+        return this.getInstructionPointer() < program.size();
+    }
+
+
+
     /**
      * Reset all registers to 0, and clear the output.
      */
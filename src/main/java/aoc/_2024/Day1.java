@@ -1,14 +1,14 @@
 package aoc._2024;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.LoggerFactory;
 
+import aoc.ByteCursor;
 import aoc.FileUtils;
+import aoc.LongIntMap;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -33,10 +33,10 @@ public class Day1 {
         log.setLevel(Level.DEBUG);
 
         // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
+        int[][] testLists = readLocations(TEST_INPUT_TXT);
 
         int expectedTestResult = 11;
-        int part1TestResult = part1(testLines);
+        int part1TestResult = part1(testLists);
         log.info("The total distance between the lists is: {} (should be {})", part1TestResult, expectedTestResult);
 
         if (part1TestResult != expectedTestResult)
@@ -45,16 +45,16 @@ public class Day1 {
         log.setLevel(Level.INFO);
 
         // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
+        int[][] lists = readLocations(INPUT_TXT);
 
-        log.info("The total distance between the lists is: {}", part1(lines));
+        log.info("The total distance between the lists is: {}", part1(lists));
 
         // PART 2
         log.info("Part 2:");
         log.setLevel(Level.DEBUG);
 
         expectedTestResult = 31;
-        long part2TestResult = part2(testLines);
+        long part2TestResult = part2(testLists);
         log.info("The similarity score between the two lists is: {} (should be {})", part2TestResult,
                  expectedTestResult);
 
@@ -63,27 +63,21 @@ public class Day1 {
 
         log.setLevel(Level.INFO);
 
-        log.info("The similarity score between the two lists is: {}", part2(lines));
+        log.info("The similarity score between the two lists is: {}", part2(lists));
     }
 
     /**
      * Your actual left and right lists contain many location IDs. What is the total distance between your lists?
      */
-    private static int part1(final List<String> lines) {
-        var leftList = new ArrayList<Integer>();
-        var rightList = new ArrayList<Integer>();
+    private static int part1(final int[][] lists) {
+        var left = lists[0].clone();
+        var right = lists[1].clone();
 
-        lines.forEach(l -> {
-            String[] split = l.split(" +");
-            leftList.add(Integer.valueOf(split[0]));
-            rightList.add(Integer.valueOf(split[1]));
-        });
+        Arrays.sort(left);
+        Arrays.sort(right);
 
-        leftList.sort(null);
-        rightList.sort(null);
-
-        return IntStream.range(0, leftList.size())
-                        .map(i -> Math.abs(leftList.get(i) - rightList.get(i)))
+        return IntStream.range(0, left.length)
+                        .map(i -> Math.abs(left[i] - right[i]))
                         .sum();
     }
 
@@ -92,17 +86,59 @@ public class Day1 {
      * Calculate a total similarity score by adding up each number in the left list after multiplying it by the number
      * of times that number appears in the right list.
      */
-    private static long part2(final List<String> lines) {
-        Map<String, Integer> rightList = CollectionUtils.getCardinalityMap(lines.stream()
-                                                                                .map(l -> l.split(" +")[1])
-                                                                                .toList());
+    private static long part2(final int[][] lists) {
+        var rightCounts = new LongIntMap(lists[1].length);
+        Arrays.stream(lists[1]).forEach(r -> rightCounts.merge(r, 1, Integer::sum));
+
+        log.debug("Right list has {} distinct location IDs", rightCounts.size());
+
+        return Arrays.stream(lists[0])
+                     .mapToLong(l -> (long) l * rightCounts.getOrDefault(l, 0))
+                     .sum();
+    }
+
+    /**
+     * Read the two columns of location IDs straight from the mapped input file.
+     * 
+     * @param fileName The name of the input file.
+     * @return The left list and the right list, in the order they were read.
+     */
+    private static int[][] readLocations(final String fileName) {
+        var cursor = new ByteCursor(FileUtils.mapFile(fileName));
+        var left = IntStream.builder();
+        var right = IntStream.builder();
+        while (cursor.hasNextLine()) {
+            if (cursor.hasNextNumber()) {
+                left.add(cursor.nextInt());
+                right.add(cursor.nextInt());
+            }
+            cursor.nextLine();
+        }
+        return new int[][] { left.build().toArray(), right.build().toArray() };
+    }
+
+
+
+    public static class Solution implements Solver<int[][]> {
+
+        @Override
+        public int[][] parse(String fileName) {
+            return readLocations(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(int[][] lists) {
+            return Day1.part1(lists);
+        }
+
 
-        log.debug("Right list cardinality: {}", rightList);
 
-        return lines.stream()
-                    .map(l -> l.split(" +")[0])
-                    .mapToInt(i -> Integer.parseInt(i) * rightList.getOrDefault(i, 0))
-                    .sum();
+        @Override
+        public Object part2(int[][] lists) {
+            return Day1.part2(lists);
+        }
     }
 
 }
\ No newline at end of file
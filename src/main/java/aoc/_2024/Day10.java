@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import aoc.Coordinate;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -156,4 +157,28 @@ public class Day10 {
         return findTrails(map).size();
     }
 
+
+
+    public static class Solution implements Solver<Map<Coordinate, Integer>> {
+
+        @Override
+        public Map<Coordinate, Integer> parse(String fileName) {
+            return Coordinate.mapDigits(FileUtils.readFile(fileName));
+        }
+
+
+
+        @Override
+        public Object part1(Map<Coordinate, Integer> map) {
+            return Day10.part1(map);
+        }
+
+
+
+        @Override
+        public Object part2(Map<Coordinate, Integer> map) {
+            return Day10.part2(map);
+        }
+    }
+
 }
\ No newline at end of file
@@ -1,13 +1,8 @@
 package aoc._2024;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -15,6 +10,7 @@ import java.util.stream.Stream;
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -121,10 +117,11 @@ public class Day11 {
         if (stone == 0)
             return Arrays.asList(1L);
 
-        int digits = (int) Math.log10(stone) + 1;
-        if (digits % 2 == 0)
-            return Arrays.asList(stone / ((int) Math.pow(10, digits / 2.)),
-                                 stone % ((int) Math.pow(10, digits / 2.)));
+        int digits = StoneCounter.digits(stone);
+        if (digits % 2 == 0) {
+            long half = StoneCounter.powerOfTen(digits / 2);
+            return Arrays.asList(stone / half, stone % half);
+        }
 
         return Arrays.asList(stone * 2024);
     }
@@ -143,40 +140,35 @@ public class Day11 {
 
         log.debug("Initial arragement: {}", stones);
 
-        var blinks = 75;
+        var counter = new StoneCounter(stones);
+        var count = counter.count(75);
+
+        log.debug("{} distinct values after blinking", counter.distinctValues());
 
-        // Create a map of known results (number of stones given a starting number and a number of blinks)
-        Map<Result, Long> blinkMap = new HashMap<>();
+        return count;
+    }
 
-        // Begin a stack of unknown results
-        Deque<Result> stack = new ArrayDeque<>();
-        stones.stream().forEach(s -> stack.push(new Result(s, blinks)));
 
-        // Find the needed results
-        while (!stack.isEmpty()) {
-            var result = stack.pop();
 
-            List<Result> nextValues = getNextValues(result.stone()).stream().map(s -> new Result(s, result.blinks() - 1)).toList();
+    public static class Solution implements Solver<List<String>> {
 
-            if (result.blinks() == 1) {
-                // If it's the terminal blink, compute it
-                blinkMap.put(result, (long) nextValues.size());
-            } else if (nextValues.stream().allMatch(blinkMap::containsKey)) {
-                // If we have the number of stones for the next value(s) 
-                blinkMap.put(result, nextValues.stream().mapToLong(blinkMap::get).sum());
-            } else {
-                // We don't have enough information yet, put the results back on the stack
-                stack.push(result);
-                nextValues.stream().filter(Predicate.not(blinkMap::containsKey)).forEach(stack::push);
-            }
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
         }
 
-        // The map should now contain the initially required results
-        return stones.stream().mapToLong(s -> blinkMap.get(new Result(s, blinks))).sum();
-    }
 
 
+        @Override
+        public Object part1(List<String> lines) {
+            return Day11.part1(lines);
+        }
+
 
-    private record Result(long stone, long blinks) {
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day11.part2(lines);
+        }
     }
 }
\ No newline at end of file
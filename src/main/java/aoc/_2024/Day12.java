@@ -9,7 +9,6 @@ import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.summingInt;
 import static java.util.stream.Collectors.teeing;
-import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayDeque;
@@ -18,8 +17,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -27,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import aoc.Coordinate;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -55,10 +53,11 @@ public class Day12 {
         log.setLevel(Level.DEBUG);
 
         // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-        var testMap = Coordinate.mapCoordinates(testLines);
-        var testRows = testLines.size();
-        var testColumns = testLines.getFirst().length();
+        var solution = new Solution();
+        var testGarden = solution.parse(TEST_INPUT_TXT);
+        var testMap = testGarden.map();
+        var testRows = testGarden.rows();
+        var testColumns = testGarden.columns();
 
         var expectedTestResult = 1930;
         var testResult = part1(testMap);
@@ -72,10 +71,10 @@ public class Day12 {
         log.setLevel(Level.INFO);
 
         // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-        var map = Coordinate.mapCoordinates(lines);
-        var rows = lines.size();
-        var columns = lines.getFirst().length();
+        var garden = solution.parse(INPUT_TXT);
+        var map = garden.map();
+        var rows = garden.rows();
+        var columns = garden.columns();
 
         log.info(resultMessage, part1(map));
 
@@ -110,31 +109,7 @@ public class Day12 {
     private static long part1(final Map<Coordinate, Character> map) {
 
         // Group into regions
-        AtomicInteger regionId = new AtomicInteger();
-        Map<Coordinate, Region> regionMap = new HashMap<>();
-        map.forEach((c, p) -> {
-            if (!regionMap.containsKey(c)) {
-                // Map the new region
-                var region = new Region(regionId.getAndIncrement(), p);
-                regionMap.put(c, region);
-
-                // Map its neighbours
-                Deque<Coordinate> neighbours = c.findOrthogonalAdjacent()
-                                                .stream()
-                                                .filter(n -> p.equals(map.get(n)))
-                                                .filter(Predicate.not(regionMap::containsKey))
-                                                .collect(toCollection(ArrayDeque::new));
-                while (!neighbours.isEmpty()) {
-                    var neighbour = neighbours.pop();
-                    regionMap.putIfAbsent(neighbour, region);
-                    neighbour.findOrthogonalAdjacent()
-                             .stream()
-                             .filter(n -> p.equals(map.get(n)))
-                             .filter(Predicate.not(regionMap::containsKey))
-                             .forEach(neighbours::push);
-                }
-            }
-        });
+        var regionMap = mapRegions(map);
 
         log.debug("Region map: {}", regionMap);
 
@@ -172,11 +147,48 @@ public class Day12 {
      */
     private static int countEdges(Coordinate gardenPlot, Map<Coordinate, Character> map) {
         var plantType = map.get(gardenPlot);
-        return (int) gardenPlot.findOrthogonalAdjacent()
-                               .stream()
-                               .map(map::get)
-                               .filter(c -> !plantType.equals(c))
-                               .count();
+        int edges = 0;
+        for (int i = 0; i < Coordinate.ORTHOGONAL_ADJACENT; i++)
+            if (!plantType.equals(map.get(gardenPlot.orthogonalAdjacent(i))))
+                edges++;
+        return edges;
+    }
+
+
+
+    /**
+     * Flood fill the map into regions of the same plant type.
+     * 
+     * @param map The map of garden plots.
+     * @return The region each garden plot belongs to.
+     */
+    private static Map<Coordinate, Region> mapRegions(Map<Coordinate, Character> map) {
+        int regionId = 0;
+        Map<Coordinate, Region> regionMap = new HashMap<>();
+        Deque<Coordinate> neighbours = new ArrayDeque<>();
+        for (var plot : map.entrySet()) {
+            if (regionMap.containsKey(plot.getKey()))
+                continue;
+
+            // Map the new region
+            var plantType = plot.getValue();
+            var region = new Region(regionId++, plantType);
+            regionMap.put(plot.getKey(), region);
+
+            // Map its neighbours
+            neighbours.push(plot.getKey());
+            while (!neighbours.isEmpty()) {
+                var current = neighbours.pop();
+                for (int i = 0; i < Coordinate.ORTHOGONAL_ADJACENT; i++) {
+                    var neighbour = current.orthogonalAdjacent(i);
+                    if (plantType.equals(map.get(neighbour)) && !regionMap.containsKey(neighbour)) {
+                        regionMap.put(neighbour, region);
+                        neighbours.push(neighbour);
+                    }
+                }
+            }
+        }
+        return regionMap;
     }
 
 
@@ -190,31 +202,7 @@ public class Day12 {
     private static long part2(final Map<Coordinate, Character> map, int rows, int columns) {
 
         // Group into regions
-        AtomicInteger regionId = new AtomicInteger();
-        Map<Coordinate, Region> regionMap = new HashMap<>();
-        map.forEach((c, p) -> {
-            if (!regionMap.containsKey(c)) {
-                // Map the new region
-                var region = new Region(regionId.getAndIncrement(), p);
-                regionMap.put(c, region);
-
-                // Map its neighbours
-                Deque<Coordinate> neighbours = c.findOrthogonalAdjacent()
-                                                .stream()
-                                                .filter(n -> p.equals(map.get(n)))
-                                                .filter(Predicate.not(regionMap::containsKey))
-                                                .collect(toCollection(ArrayDeque::new));
-                while (!neighbours.isEmpty()) {
-                    var neighbour = neighbours.pop();
-                    regionMap.putIfAbsent(neighbour, region);
-                    neighbour.findOrthogonalAdjacent()
-                             .stream()
-                             .filter(n -> p.equals(map.get(n)))
-                             .filter(Predicate.not(regionMap::containsKey))
-                             .forEach(neighbours::push);
-                }
-            }
-        });
+        var regionMap = mapRegions(map);
 
         // Map out the sides of the regions
         Map<Region, Integer> sidesMap = new HashMap<>();
@@ -283,4 +271,34 @@ public class Day12 {
 
     private record Region(int id, char plantType) {
     }
+
+
+
+    private record Garden(Map<Coordinate, Character> map, int rows, int columns) {
+    }
+
+
+
+    public static class Solution implements Solver<Garden> {
+
+        @Override
+        public Garden parse(String fileName) {
+            List<String> lines = FileUtils.readFile(fileName);
+            return new Garden(Coordinate.mapCoordinates(lines), lines.size(), lines.getFirst().length());
+        }
+
+
+
+        @Override
+        public Object part1(Garden garden) {
+            return Day12.part1(garden.map());
+        }
+
+
+
+        @Override
+        public Object part2(Garden garden) {
+            return Day12.part2(garden.map(), garden.rows(), garden.columns());
+        }
+    }
 }
\ No newline at end of file
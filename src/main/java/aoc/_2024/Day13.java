@@ -11,6 +11,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -231,4 +232,28 @@ public class Day13 {
     private record ButtonPresses(long buttonA, long buttonB) {
     }
 
+
+
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day13.part1(lines);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day13.part2(lines);
+        }
+    }
+
 }
\ No newline at end of file
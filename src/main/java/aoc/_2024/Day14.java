@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import aoc.Coordinate;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -266,8 +267,8 @@ public class Day14 {
             var positionArray = positionAndVelocity[1].split(",");
             var velocityArray = positionAndVelocity[3].split(",");
 
-            this.position = new Coordinate(Integer.parseInt(positionArray[1]), Integer.parseInt(positionArray[0]));
-            this.velocity = new Coordinate(Integer.parseInt(velocityArray[1]), Integer.parseInt(velocityArray[0]));
+            this.position = Coordinate.of(Integer.parseInt(positionArray[1]), Integer.parseInt(positionArray[0]));
+            this.velocity = Coordinate.of(Integer.parseInt(velocityArray[1]), Integer.parseInt(velocityArray[0]));
         }
 
 
@@ -302,4 +303,28 @@ public class Day14 {
         }
     }
 
+
+
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day14.part1(lines, 103, 101);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day14.part2(lines, 103, 101);
+        }
+    }
+
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ import aoc.Coordinate;
 import aoc.Direction;
 import aoc.FileUtils;
 import aoc.MovableObject;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -46,17 +47,12 @@ public class Day15 {
         log.setLevel(Level.DEBUG);
 
         // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-
-        var testMapLines = testLines.stream()
-                                    .filter(l -> l.startsWith("#"))
-                                    .toList();
-        var testMap = Coordinate.mapCoordinates(testMapLines);
-        var testRows = testMapLines.size();
-        var testColumns = testMapLines.getFirst().length();
-        var testInstructions = testLines.stream()
-                                        .filter(l -> !l.startsWith("#"))
-                                        .collect(Collectors.joining());
+        var solution = new Solution();
+        var testWarehouse = solution.parse(TEST_INPUT_TXT);
+        var testMap = testWarehouse.map();
+        var testRows = testWarehouse.rows();
+        var testColumns = testWarehouse.columns();
+        var testInstructions = testWarehouse.instructions();
 
         var expectedTestResult = 10_092;
         var testResult = part1(testMap, testRows, testColumns, testInstructions);
@@ -70,16 +66,11 @@ public class Day15 {
         log.setLevel(Level.INFO);
 
         // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-        var mapLines = lines.stream()
-                            .filter(l -> l.startsWith("#"))
-                            .toList();
-        var map = Coordinate.mapCoordinates(mapLines);
-        var rows = mapLines.size();
-        var columns = mapLines.getFirst().length();
-        var instructions = lines.stream()
-                                .filter(l -> !l.startsWith("#"))
-                                .collect(Collectors.joining());
+        var warehouse = solution.parse(INPUT_TXT);
+        var map = warehouse.map();
+        var rows = warehouse.rows();
+        var columns = warehouse.columns();
+        var instructions = warehouse.instructions();
 
         log.info(resultMessage, part1(map, rows, columns, instructions));
 
@@ -366,4 +357,41 @@ public class Day15 {
         }
 
     }
+
+
+
+    private record Warehouse(Map<Coordinate, Character> map, int rows, int columns, String instructions) {
+    }
+
+
+
+    public static class Solution implements Solver<Warehouse> {
+
+        @Override
+        public Warehouse parse(String fileName) {
+            List<String> lines = FileUtils.readFile(fileName);
+            var mapLines = lines.stream()
+                                .filter(l -> l.startsWith("#"))
+                                .toList();
+            var instructions = lines.stream()
+                                    .filter(l -> !l.startsWith("#"))
+                                    .collect(Collectors.joining());
+            return new Warehouse(Coordinate.mapCoordinates(mapLines), mapLines.size(), mapLines.getFirst().length(),
+                                 instructions);
+        }
+
+
+
+        @Override
+        public Object part1(Warehouse warehouse) {
+            return Day15.part1(warehouse.map(), warehouse.rows(), warehouse.columns(), warehouse.instructions());
+        }
+
+
+
+        @Override
+        public Object part2(Warehouse warehouse) {
+            return Day15.part2(warehouse.map(), warehouse.rows(), warehouse.columns(), warehouse.instructions());
+        }
+    }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import aoc.Coordinate;
 import aoc.Direction;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -310,4 +311,28 @@ public class Day16 {
     private record Path(List<Step> steps, Set<Coordinate> positions) {
     }
 
+
+
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day16.part1(lines);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day16.part2(lines);
+        }
+    }
+
 }
\ No newline at end of file
@@ -2,16 +2,15 @@ package aoc._2024;
 
 import static aoc._2024.Computer.REGISTER_A;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -32,6 +31,11 @@ public class Day17 {
 
     private static final String TEST_INPUT_TXT_2 = "testInput/Day17-2.txt";
 
+    /**
+     * The number of values of A to run together when scanning for part 2.
+     */
+    private static final int BATCH_SIZE = 4096;
+
 
 
     public static void main(String[] args) {
@@ -77,6 +81,10 @@ public class Day17 {
         if (testResult2 != expectedTestResult2)
             log.error("The test result doesn't match the expected value.");
 
+        // The test answer is small enough to find by trying every value of A
+        if (part2_x(testLines2, 1_000_000) != expectedTestResult2)
+            log.error("Scanning for the test result doesn't find the expected value.");
+
         log.setLevel(Level.INFO);
 
         log.info(resultMessage, part2(lines));
@@ -116,7 +124,13 @@ public class Day17 {
            .addArgument(() -> program.stream().map(Object::toString).collect(Collectors.joining(",")))
            .log();
 
-        state.run(program);
+        if (log.isDebugEnabled()) {
+            var profile = new InstructionProfile();
+            state.run(program, profile);
+            log.debug("Profile:\n{}", profile);
+        } else {
+            state.run(program);
+        }
 
         // Return the output
         return state.output();
@@ -147,41 +161,17 @@ public class Day17 {
            .addArgument(() -> program.stream().map(Object::toString).collect(Collectors.joining(",")))
            .log();
 
-        // Try adding digits to the input as long as its matching the output
-        int digit = 0;
-        List<Long> bases = new ArrayList<>();
-        List<Long> nextBases = new ArrayList<>();
-        bases.add(0L);
-        var programSize = program.size();
-        while (digit < programSize && !bases.isEmpty()) {
-            var base = bases.removeLast();
-            var localDigit = digit;
-            IntStream.rangeClosed(0, 7)
-                     .forEach(i -> {
-                         var input = base * 8 + i;
-                         var output = runComputerWithInput(input, program);
-                         var outputSize = output.size();
-                         if (outputSize > localDigit &&
-                             output.equals(program.subList(programSize - localDigit - 1, programSize))) {
-                             nextBases.add(input);
-                         }
-                     });
-            if (bases.isEmpty()) {
-                digit++;
-                bases.addAll(nextBases);
-                nextBases.clear();
-            }
-        }
-        log.debug("Found options: {}", bases);
+        // Solve the program directly if it's a simple loop, otherwise build A up
+        // an octal digit at a time, as long as it's matching the output
+        var analysis = ProgramAnalysis.analyze(program);
+        log.debug("Analysis: {}", analysis);
+        var finalInput = analysis.map(ProgramAnalysis::solveQuine)
+                                 .orElseGet(() -> QuineSearch.findLowest(program));
+        log.debug("Found: {}o", Long.toOctalString(finalInput));
 
         // Double check
-        var finalInput = bases.stream()
-                              .mapToLong(Long::longValue)
-                              .filter(i -> runComputerWithInput(i, program).equals(program))
-                              .min()
-                              .orElse(-1);
-
-        var finalOutput = runComputerWithInput(finalInput, program);
+        var compiled = CompiledProgram.compile(program);
+        var finalOutput = runComputerWithInput(finalInput, compiled);
         if (finalOutput.equals(program))
             log.debug("Success!");
 
@@ -191,7 +181,7 @@ public class Day17 {
         long input = 0;
         while (input >= 0) {
             input = Long.parseLong(scanner.nextLine(), 8);
-            runComputerWithInput(input, program);
+            runComputerWithInput(input, compiled);
         }
         scanner.close();
         */
@@ -206,15 +196,17 @@ public class Day17 {
      * register starting value.
      * 
      * @param aRegister The value to initialize the A register with.
-     * @param program The program to run.
+     * @param program The compiled program to run.
      * @return The output of running the program.
      */
-    private static List<Integer> runComputerWithInput(long aRegister, List<Integer> program) {
-        Computer state = new Computer();
-        state.registers().put(REGISTER_A, aRegister);
-        state.run(program);
-        log.debug("Input of {}o gives output of {}", Long.toOctalString(aRegister), state.output());
-        return state.output();
+    private static List<Integer> runComputerWithInput(long aRegister, CompiledProgram program) {
+        var output = program.run(aRegister);
+        log.atDebug()
+           .setMessage("Input of {}o gives output of {}")
+           .addArgument(() -> Long.toOctalString(aRegister))
+           .addArgument(output)
+           .log();
+        return output;
     }
 
 
@@ -222,15 +214,19 @@ public class Day17 {
     /**
      * This worked for the test input, but the number for the real input was
      * greater than {@link Integer#MAX_VALUE}. It took 11 minutes to scan
-     * through them all.
+     * through them all one run at a time, so the values of A are now tried in
+     * batches with {@link Computer#runBatch(long[], List)}, which still only
+     * suits answers small enough to count up to.
      * <p>
      * What is the lowest positive initial value for register A that causes the
      * program to output a copy of itself?
      * 
      * @param lines The lines read from the input.
-     * @return The value calculated for part 2.
+     * @param limit The value of A to give up at.
+     * @return The value calculated for part 2, or -1 if it is at least the
+     *         limit.
      */
-    private static long part2_x(final List<String> lines) {
+    private static long part2_x(final List<String> lines, long limit) {
 
         var inputDelimiter = ": ";
 
@@ -241,49 +237,24 @@ public class Day17 {
                            .flatMap(Arrays::stream)
                            .map(Integer::valueOf)
                            .toList();
-        log.atDebug()
-           .setMessage("Program: {}")
-           .addArgument(() -> program.stream().map(Object::toString).collect(Collectors.joining(",")))
-           .log();
-
-        // Try values for A until the output matches the program.
-        Computer state = new Computer();
-        var testInput = Long.parseLong("6522275", 8);
-        state.registers().put(REGISTER_A, testInput);
-        state.run(program);
-        log.debug("Input of {}o gives output of {}", Long.toOctalString(testInput), state.output());
-        state.reset();
-
-        long initialA = 0;
-        var outputsMatch = false;
-
-        while (!outputsMatch && initialA < 100 && initialA >= 0) {
-            //            if (initialA % 10_000 == 0)
-            //                log.debug("Trying {}", initialA);
-
-            state.reset();
-            state.registers().put(REGISTER_A, initialA);
-            var canContinue = true;
-            outputsMatch = true;
-            do {
-                canContinue = state.step(program);
-                var output = state.output();
-                //                outputsMatch = output.size() <= program.size() &&
-                //                               program.subList(0, output.size()).equals(state.output());
-            } while (canContinue && outputsMatch);
-            outputsMatch = program.equals(state.output());
-
-            log.debug("Initial value {} ({}o {}b) resulting output: {}",
-                      initialA, Long.toOctalString(initialA), Long.toBinaryString(initialA), state.output());
-
-            //            initialA+=8*8*x++;
-            //            initialA+=8;
-            initialA++;
+        var expected = program.stream().mapToInt(Integer::intValue).toArray();
+
+        // Try values for A a batch at a time until the output matches the program.
+        long[] aValues = new long[BATCH_SIZE];
+        for (long initialA = 0; initialA < limit; initialA += BATCH_SIZE) {
+            for (int i = 0; i < BATCH_SIZE; i++)
+                aValues[i] = initialA + i;
+
+            var outputs = Computer.runBatch(aValues, program);
+            for (int i = 0; i < BATCH_SIZE && initialA + i < limit; i++) {
+                if (outputs.matches(i, expected)) {
+                    log.debug("Initial value {} ({}o) outputs the program", initialA + i, Long.toOctalString(initialA + i));
+                    return initialA + i;
+                }
+            }
         }
 
-        log.debug("Final state:\n{}", state);
-
-        return initialA;
+        return -1;
     }
 
 
@@ -331,4 +302,28 @@ public class Day17 {
 
     }
 
+
+
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day17.part1(lines);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day17.part2(lines);
+        }
+    }
+
 }
\ No newline at end of file
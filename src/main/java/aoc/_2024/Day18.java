@@ -2,12 +2,13 @@ package aoc._2024;
 
 import static java.util.function.Predicate.not;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -16,6 +17,9 @@ import org.slf4j.LoggerFactory;
 
 import aoc.Coordinate;
 import aoc.FileUtils;
+import aoc.LongIntMap;
+import aoc.LongSet;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -44,11 +48,8 @@ public class Day18 {
         log.setLevel(Level.DEBUG);
 
         // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-        List<Coordinate> testMemory = testLines.stream()
-                                               .map(l -> l.split(","))
-                                               .map(l -> Coordinate.of(Integer.parseInt(l[1]), Integer.parseInt(l[0])))
-                                               .toList();
+        var solution = new Solution();
+        List<Coordinate> testMemory = solution.parse(TEST_INPUT_TXT);
         var testSize = 6;
         var testLimit = 12;
 
@@ -64,11 +65,7 @@ public class Day18 {
         log.setLevel(Level.INFO);
 
         // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-        List<Coordinate> memory = lines.stream()
-                                       .map(l -> l.split(","))
-                                       .map(l -> Coordinate.of(Integer.parseInt(l[1]), Integer.parseInt(l[0])))
-                                       .toList();
+        List<Coordinate> memory = solution.parse(INPUT_TXT);
         var size = 70;
         var limit = 1024;
 
@@ -119,8 +116,8 @@ public class Day18 {
 
         var validRange = Range.of(0, size);
         var end = Coordinate.of(size, size);
-        Map<Coordinate, Integer> minDistanceToEnd = new HashMap<>();
-        minDistanceToEnd.put(end, 0);
+        LongIntMap minDistanceToEnd = new LongIntMap((size + 1) * (size + 1));
+        minDistanceToEnd.put(end.toLong(), 0);
 
         // Start from the end, and compute the minimum distance to reach it
         List<Coordinate> spacesToCheck = new ArrayList<>();
@@ -132,20 +129,19 @@ public class Day18 {
             // Compute the min distance from this space
             var distance = space.findOrthogonalAdjacent()
                                 .stream()
-                                .map(minDistanceToEnd::get)
-                                .filter(Objects::nonNull)
-                                .mapToInt(Integer::intValue)
+                                .mapToInt(c -> minDistanceToEnd.getOrDefault(c.toLong(), -1))
+                                .filter(d -> d >= 0)
                                 .min()
                                 .orElse(-1) +
                            1;
-            minDistanceToEnd.put(space, distance);
+            minDistanceToEnd.put(space.toLong(), distance);
 
             // Find spaces to check next
             space.findOrthogonalAdjacent()
                  .stream()
                  .filter(c -> validRange.contains(c.getRow()) && validRange.contains(c.getColumn()))
                  .filter(not(corruptedSpaces::contains))
-                 .filter(not(minDistanceToEnd::containsKey))
+                 .filter(c -> !minDistanceToEnd.containsKey(c.toLong()))
                  .forEach(nextSpacesToCheck::add);
 
             if (spacesToCheck.isEmpty()) {
@@ -156,13 +152,17 @@ public class Day18 {
 
         log.atDebug()
            .setMessage("Distance to end:\n{}")
-           .addArgument(() -> Coordinate.printMap(0, 0, size, size,
-                                                  minDistanceToEnd,
-                                                  d -> Integer.toString(d, 36).transform(s -> s.charAt(s.length() - 1)),
-                                                  '#'))
+           .addArgument(() -> {
+               Map<Coordinate, Integer> distances = new HashMap<>();
+               minDistanceToEnd.forEach((c, d) -> distances.put(Coordinate.fromLong(c), d));
+               return Coordinate.printMap(0, 0, size, size,
+                                          distances,
+                                          d -> Integer.toString(d, 36).transform(s -> s.charAt(s.length() - 1)),
+                                          '#');
+           })
            .log();
 
-        return minDistanceToEnd.getOrDefault(Coordinate.of(0, 0), -1);
+        return minDistanceToEnd.getOrDefault(Coordinate.of(0, 0).toLong(), -1);
     }
 
 
@@ -182,55 +182,70 @@ public class Day18 {
      */
     private static Coordinate part2(List<Coordinate> memory, int size, int limit) {
 
-        var validRange = Range.of(0, size);
         var start = Coordinate.of(0, 0);
         var end = Coordinate.of(size, size);
-        Set<Coordinate> visited = new HashSet<>();
+        // Keep the state as packed coordinates, so the repeated searches don't box anything
+        LongSet corruptedSpaces = new LongSet(memory.size());
+        LongSet visited = new LongSet((size + 1) * (size + 1));
+        Deque<Coordinate> spacesToCheck = new ArrayDeque<>();
+        int placed = 0;
         do {
 
-            var corruptedSpaces = memory.stream().limit(limit++).collect(Collectors.toSet());
-            log.debug("Corrupted memory: {}", corruptedSpaces);
+            // Only the bytes which have fallen since the last search need to be added
+            var bytes = Math.min(limit++, memory.size());
+            while (placed < bytes)
+                corruptedSpaces.add(memory.get(placed++).toLong());
+            log.atDebug()
+               .setMessage("Corrupted memory: {}")
+               .addArgument(() -> toCoordinates(corruptedSpaces))
+               .log();
             log.atDebug()
                .setMessage("Memory after {} bytes:\n{}")
                .addArgument(limit)
-               .addArgument(() -> Coordinate.printMap(0, 0, size, size, corruptedSpaces))
+               .addArgument(() -> Coordinate.printMap(0, 0, size, size, toCoordinates(corruptedSpaces)))
                .log();
 
             visited.clear();
 
-            // Start from the end, and compute the minimum distance to reach it
-            List<Coordinate> spacesToCheck = new ArrayList<>();
-            Set<Coordinate> nextSpacesToCheck = new HashSet<>();
-            spacesToCheck.add(end);
+            // Start from the end, and find every space which can reach it
+            spacesToCheck.push(end);
+            visited.add(end.toLong());
 
             while (!spacesToCheck.isEmpty()) {
-                var space = spacesToCheck.removeLast();
-                visited.add(space);
+                var space = spacesToCheck.pop();
 
                 // Find spaces to check next
-                space.findOrthogonalAdjacent()
-                     .stream()
-                     .filter(c -> validRange.contains(c.getRow()) && validRange.contains(c.getColumn()) &&
-                                  !corruptedSpaces.contains(c) && !visited.contains(c))
-                     .forEach(nextSpacesToCheck::add);
-
-                if (spacesToCheck.isEmpty()) {
-                    spacesToCheck.addAll(nextSpacesToCheck);
-                    nextSpacesToCheck.clear();
-                }
+                space.forEachOrthogonalAdjacent((r, c) -> {
+                    var packed = Coordinate.pack(r, c);
+                    if (r >= 0 && r <= size && c >= 0 && c <= size &&
+                        !corruptedSpaces.contains(packed) && visited.add(packed))
+                        spacesToCheck.push(Coordinate.of(r, c));
+                });
             }
 
             log.atDebug()
                .setMessage("Paths from end:\n{}")
-               .addArgument(() -> Coordinate.printMap(0, 0, size, size, visited, 'o', corruptedSpaces, '#'))
+               .addArgument(() -> Coordinate.printMap(0, 0, size, size,
+                                                      toCoordinates(visited), 'o',
+                                                      toCoordinates(corruptedSpaces), '#'))
                .log();
-        } while (visited.contains(start));
+        } while (visited.contains(start.toLong()));
 
         return memory.get(limit - 2);
     }
 
 
 
+    /**
+     * @param packedCoordinates A set of packed coordinates.
+     * @return The set of unpacked coordinates, for printing.
+     */
+    private static Set<Coordinate> toCoordinates(LongSet packedCoordinates) {
+        return packedCoordinates.stream().mapToObj(Coordinate::fromLong).collect(Collectors.toSet());
+    }
+
+
+
     /**
      * Simulate more of the bytes that are about to corrupt your memory space.
      * What are the coordinates of the first byte that will prevent the exit
@@ -252,4 +267,32 @@ public class Day18 {
         return memory.get(limit - 1);
     }
 
+
+
+    public static class Solution implements Solver<List<Coordinate>> {
+
+        @Override
+        public List<Coordinate> parse(String fileName) {
+            return FileUtils.readFile(fileName)
+                            .stream()
+                            .map(l -> l.split(","))
+                            .map(l -> Coordinate.of(Integer.parseInt(l[1]), Integer.parseInt(l[0])))
+                            .toList();
+        }
+
+
+
+        @Override
+        public Object part1(List<Coordinate> memory) {
+            return Day18.part1(memory, 70, 1024);
+        }
+
+
+
+        @Override
+        public Object part2(List<Coordinate> memory) {
+            return Day18.part2(memory, 70, 1024);
+        }
+    }
+
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ import org.apache.commons.lang3.Range;
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.LineSolver;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -34,11 +36,9 @@ public class Day2 {
         log.info("Part 1:");
         log.setLevel(Level.DEBUG);
 
-        // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-
+        // Stream the test file
         var expectedTestResult = 2;
-        var testResult = part1(testLines);
+        var testResult = part1(TEST_INPUT_TXT);
         
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
@@ -48,10 +48,8 @@ public class Day2 {
 
         log.setLevel(Level.INFO);
 
-        // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-
-        log.info(resultMessage, part1(lines));
+        // Stream the real file
+        log.info(resultMessage, part1(INPUT_TXT));
 
         // PART 2
 //        resultMessage = "{} reports are safe";
@@ -60,7 +58,7 @@ public class Day2 {
         log.setLevel(Level.DEBUG);
 
         expectedTestResult = 4;
-        testResult = part2(testLines);
+        testResult = part2(TEST_INPUT_TXT);
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
 
@@ -69,20 +67,37 @@ public class Day2 {
 
         log.setLevel(Level.INFO);
 
-        log.info(resultMessage, part2(lines));
+        log.info(resultMessage, part2(INPUT_TXT));
     }
 
     /**
      * Analyze the unusual data from the engineers. How many reports are safe?
+     * 
+     * @param fileName The input file, streamed one report at a time.
      */
-    private static long part1(final List<String> lines) {
-        return lines.stream()
-                    .map(l -> Stream.of(l.split(" "))
-                                    .map(Integer::valueOf)
-                                    .toList())
-                    .map(Day2::safe)
-                    .filter(Boolean::booleanValue)
-                    .count();
+    private static long part1(final String fileName) {
+        return safeReports().solve(fileName);
+    }
+
+
+
+    /**
+     * @return A solver which counts each safe report.
+     */
+    private static LineSolver safeReports() {
+        return line -> safe(parseReport(line)) ? 1 : 0;
+    }
+
+
+
+    /**
+     * @param line A line of the input.
+     * @return The levels in the report.
+     */
+    private static List<Integer> parseReport(final String line) {
+        return Stream.of(line.split(" "))
+                     .map(Integer::valueOf)
+                     .toList();
     }
 
     private static boolean safe(List<Integer> l) {
@@ -98,15 +113,21 @@ public class Day2 {
      * Update your analysis by handling situations where the Problem Dampener
      * can remove a single level from unsafe reports. How many reports are now
      * safe?
+     * 
+     * @param fileName The input file, streamed one report at a time.
      */
-    private static long part2(final List<String> lines) {
-        return lines.stream()
-                    .map(l -> Stream.of(l.split(" "))
-                                    .map(Integer::valueOf)
-                                    .toList())
-                    .map(Day2::safeish)
-                    .filter(Boolean::booleanValue)
-                    .count();
+    private static long part2(final String fileName) {
+        return safeishReports().solve(fileName);
+    }
+
+
+
+    /**
+     * @return A solver which counts each report made safe by the Problem
+     *         Dampener.
+     */
+    private static LineSolver safeishReports() {
+        return line -> safeish(parseReport(line)) ? 1 : 0;
     }
 
     private static boolean safeish(List<Integer> l) {
@@ -122,4 +143,33 @@ public class Day2 {
                         .anyMatch(Day2::safe);
     }
 
+
+
+    /**
+     * Reads the whole input up front, so that the {@link Runner} counts reading
+     * it as parsing, then folds the lines in memory. {@code main} streams the
+     * file through the same {@link LineSolver}s instead.
+     */
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return safeReports().solve(lines.stream());
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return safeishReports().solve(lines.stream());
+        }
+    }
+
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import aoc.Coordinate;
 import aoc.Direction;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -269,4 +270,28 @@ public class Day20 {
     private record Location(Coordinate position, Location next, int distanceFromEnd) {
     }
 
+
+
+    public static class Solution implements Solver<Map<Coordinate, Character>> {
+
+        @Override
+        public Map<Coordinate, Character> parse(String fileName) {
+            return Coordinate.mapCoordinates(FileUtils.readFile(fileName), '#');
+        }
+
+
+
+        @Override
+        public Object part1(Map<Coordinate, Character> map) {
+            return Day20.part1(map, 100);
+        }
+
+
+
+        @Override
+        public Object part2(Map<Coordinate, Character> map) {
+            return Day20.part2(map, 100);
+        }
+    }
+
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import aoc.Coordinate;
 import aoc.Direction;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -384,4 +385,28 @@ public class Day21 {
         }
     }
 
+
+
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day21.part1(lines);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day21.part2(lines);
+        }
+    }
+
 }
\ No newline at end of file
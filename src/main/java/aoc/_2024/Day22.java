@@ -1,6 +1,7 @@
 package aoc._2024;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -9,11 +10,14 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.LoggerFactory;
 
+import aoc.ByteCursor;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -44,10 +48,10 @@ public class Day22 {
         log.setLevel(Level.DEBUG);
 
         // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
+        long[] testSecrets = readSecrets(TEST_INPUT_TXT);
 
         var expectedTestResult = 37_327_623L;
-        var testResult = part1(testLines);
+        var testResult = part1(testSecrets);
 
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
@@ -58,19 +62,19 @@ public class Day22 {
         log.setLevel(Level.INFO);
 
         // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
+        long[] secrets = readSecrets(INPUT_TXT);
 
-        log.info(resultMessage, part1(lines));
+        log.info(resultMessage, part1(secrets));
 
         // PART 2
         resultMessage = "The most bananas you can get is: {}";
 
         log.info("Part 2:");
         log.setLevel(Level.DEBUG);
-        testLines = FileUtils.readFile(TEST_INPUT_2_TXT);
+        testSecrets = readSecrets(TEST_INPUT_2_TXT);
 
         expectedTestResult = 23;
-        testResult = part2(testLines);
+        testResult = part2(testSecrets);
 
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
@@ -80,7 +84,7 @@ public class Day22 {
 
         log.setLevel(Level.INFO);
 
-        log.info(resultMessage, part2(lines)); // lower than 1647
+        log.info(resultMessage, part2(secrets)); // lower than 1647
     }
 
 
@@ -89,21 +93,20 @@ public class Day22 {
      * For each buyer, simulate the creation of 2000 new secret numbers. What is
      * the sum of the 2000th secret number generated by each buyer?
      * 
-     * @param lines The lines read from the input.
+     * @param secrets The initial secret numbers read from the input.
      * @return The value calculated for part 1.
      */
-    private static long part1(final List<String> lines) {
-
-        return lines.stream()
-                    .mapToLong(Long::parseLong)
-                    .map(s -> {
-                        AtomicLong secret = new AtomicLong(s);
-                        IntStream.rangeClosed(1, 2000)
-                                 .forEach(i -> secret.set(nextSecret(secret.get())));
-
-                        return secret.get();
-                    })
-                    .sum();
+    private static long part1(final long[] secrets) {
+
+        return Arrays.stream(secrets)
+                     .map(s -> {
+                         AtomicLong secret = new AtomicLong(s);
+                         IntStream.rangeClosed(1, 2000)
+                                  .forEach(i -> secret.set(nextSecret(secret.get())));
+
+                         return secret.get();
+                     })
+                     .sum();
     }
 
 
@@ -182,42 +185,61 @@ public class Day22 {
 
 
 
+    /**
+     * Read the initial secret number of each buyer, one per line, straight
+     * from the mapped input file.
+     * 
+     * @param fileName The name of the input file.
+     * @return The initial secret numbers.
+     */
+    private static long[] readSecrets(final String fileName) {
+        var cursor = new ByteCursor(FileUtils.mapFile(fileName));
+        var secrets = LongStream.builder();
+        while (cursor.hasNextLine()) {
+            if (cursor.hasNextNumber())
+                secrets.add(cursor.nextLong());
+            cursor.nextLine();
+        }
+        return secrets.build().toArray();
+    }
+
+
+
     /**
      * Figure out the best sequence to tell the monkey so that by looking for
      * that same sequence of changes in every buyer's future prices, you get the
      * most bananas in total. What is the most bananas you can get?
      * 
-     * @param lines The lines read from the input.
+     * @param secrets The initial secret numbers read from the input.
      * @return The value calculated for part 2.
      */
-    private static long part2(final List<String> lines) {
+    private static long part2(final long[] secrets) {
 
         List<Map<List<Integer>, Integer>> firstSequences = new ArrayList<>();
 
         // Find all the sequences for each seller which result in particular sale prices
-        lines.stream()
-             .mapToLong(Long::parseLong)
-             .forEach(s -> {
-                 AtomicLong secret = new AtomicLong(s);
-                 var prices = IntStream.rangeClosed(1, 2001)
-                                       .map(i -> (int) (secret.updateAndGet(Day22::nextSecret) % 10))
-                                       .boxed()
-                                       .toList();
-
-                 Map<List<Integer>, Integer> sellerFirstPrices = new HashMap<>();
-                 IntStream.range(4, prices.size())
-                          .forEach(i -> {
-                              List<Integer> sequence = new ArrayList<>();
-                              sequence.add(prices.get(i) - prices.get(i - 1));
-                              sequence.add(prices.get(i - 1) - prices.get(i - 2));
-                              sequence.add(prices.get(i - 2) - prices.get(i - 3));
-                              sequence.add(prices.get(i - 3) - prices.get(i - 4));
-
-                              sellerFirstPrices.putIfAbsent(sequence, prices.get(i));
-                          });
-
-                 firstSequences.add(sellerFirstPrices);
-             });
+        Arrays.stream(secrets)
+              .forEach(s -> {
+                  AtomicLong secret = new AtomicLong(s);
+                  var prices = IntStream.rangeClosed(1, 2001)
+                                        .map(i -> (int) (secret.updateAndGet(Day22::nextSecret) % 10))
+                                        .boxed()
+                                        .toList();
+
+                  Map<List<Integer>, Integer> sellerFirstPrices = new HashMap<>();
+                  IntStream.range(4, prices.size())
+                           .forEach(i -> {
+                               List<Integer> sequence = new ArrayList<>();
+                               sequence.add(prices.get(i) - prices.get(i - 1));
+                               sequence.add(prices.get(i - 1) - prices.get(i - 2));
+                               sequence.add(prices.get(i - 2) - prices.get(i - 3));
+                               sequence.add(prices.get(i - 3) - prices.get(i - 4));
+
+                               sellerFirstPrices.putIfAbsent(sequence, prices.get(i));
+                           });
+
+                  firstSequences.add(sellerFirstPrices);
+              });
 
         Map<List<Integer>, Integer> sequenceTotals = new HashMap<>();
         firstSequences.stream()
@@ -236,4 +258,28 @@ public class Day22 {
         return best.getValue();
     }
 
+
+
+    public static class Solution implements Solver<long[]> {
+
+        @Override
+        public long[] parse(String fileName) {
+            return readSecrets(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(long[] secrets) {
+            return Day22.part1(secrets);
+        }
+
+
+
+        @Override
+        public Object part2(long[] secrets) {
+            return Day22.part2(secrets);
+        }
+    }
+
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import org.jgrapht.graph.DefaultUndirectedGraph;
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -246,4 +247,28 @@ public class Day23 {
             return String.format("%s (%s)", name, neighbours.stream().map(Computer::name).collect(Collectors.joining(", ")));
         }
     }
+
+
+
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day23.part1(lines);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day23.part2(lines);
+        }
+    }
 }
\ No newline at end of file
@@ -1,30 +1,14 @@
 package aoc._2024;
 
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Queue;
-import java.util.function.BiFunction;
+import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
-
-import org.apache.commons.collections4.bidimap.DualHashBidiMap;
-import org.apache.commons.lang3.ObjectUtils;
-import org.apache.commons.lang3.RandomUtils;
-import org.jgrapht.Graph;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleDirectedGraph;
-import org.jgrapht.nio.DefaultAttribute;
-import org.jgrapht.nio.gml.GmlExporter;
+
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -41,10 +25,13 @@ public class Day24 {
 
     private static final String INPUT_TXT = "input/Day24.txt";
 
-    private static final String INPUT_2_TXT = "input/Day24-2.txt";
-
     private static final String TEST_INPUT_TXT = "testInput/Day24.txt";
 
+    /**
+     * The number of pairs of gates which need their outputs swapped.
+     */
+    private static final int SWAPS = 4;
+
     private static final String TEST_INPUT_2_TXT = "testInput/Day24-2.txt";
 
 
@@ -91,10 +78,9 @@ public class Day24 {
         if (!expectedTestResult2.equals(testResult2))
             log.error("The test result doesn't match the expected value.");
 
-        //        log.setLevel(Level.INFO);
-        List<String> lines2 = FileUtils.readFile(INPUT_2_TXT);
+        log.setLevel(Level.INFO);
 
-        log.info(resultMessage, part2(lines2));
+        log.info(resultMessage, part2(lines));
     }
 
 
@@ -108,60 +94,32 @@ public class Day24 {
      */
     private static long part1(final List<String> lines) {
 
-        Map<String, Boolean> values = new HashMap<>();
+        var circuit = CompiledCircuit.compile(lines);
+        boolean[] values = new boolean[circuit.wireCount()];
 
         // Parse the inputs
         lines.stream()
              .filter(l -> l.contains(": "))
              .map(l -> l.split(": "))
-             .forEach(v -> values.put(v[0], "1".equals(v[1])));
-
-        var functions = Map.<String, BiFunction<Boolean, Boolean, Boolean>>of("AND", (a, b) -> a && b,
-                                                                              "OR", (a, b) -> a || b,
-                                                                              "XOR", (a, b) -> a ^ b);
-        // Parse the gates
-        var gates = lines.stream()
-                         .filter(l -> l.contains("->"))
-                         .map(l -> l.split(" "))
-                         .map(l -> new Gate(l[0], l[2], l[4], functions.get(l[1])))
-                         .toList();
-
-        Queue<Gate> gatesToCheck = new ArrayDeque<>(gates);
-        while (!gatesToCheck.isEmpty()) {
-            var nextGate = gatesToCheck.poll();
-
-            if (values.containsKey(nextGate.input1()) &&
-                values.containsKey(nextGate.input2()) &&
-                !values.containsKey(nextGate.result())) {
-                values.put(nextGate.result(), nextGate.operation()
-                                                      .apply(values.get(nextGate.input1()), values.get(nextGate.input2())));
-            } else {
-                // Re-queue
-                gatesToCheck.add(nextGate);
-            }
-        }
+             .filter(v -> circuit.indexOf(v[0]) >= 0)
+             .forEach(v -> values[circuit.indexOf(v[0])] = "1".equals(v[1]));
+
+        circuit.evaluate(values);
 
         log.atDebug()
            .setMessage("Values:\n{}")
-           .addArgument(() -> values.entrySet()
-                                    .stream()
-                                    .map(e -> e.getKey() + ": " + (Boolean.TRUE.equals(e.getValue()) ? "1" : "0"))
-                                    .sorted()
-                                    .collect(Collectors.joining("\n")))
+           .addArgument(() -> IntStream.range(0, circuit.wireCount())
+                                       .mapToObj(w -> circuit.nameOf(w) + ": " + (values[w] ? "1" : "0"))
+                                       .sorted()
+                                       .collect(Collectors.joining("\n")))
 
            .log();
 
-        var zValues = values.entrySet()
-                            .stream()
-                            .filter(e -> e.getKey().startsWith("z"))
-                            .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                            .map(Entry::getValue)
-                            .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                            .collect(Collectors.joining());
+        var zValue = circuit.outputValue(values);
 
-        log.debug("Z values: {}", zValues);
+        log.debug("Z values: {}", toBinary(zValue, circuit.outputBits()));
 
-        return Long.parseLong(zValues, 2);
+        return zValue;
     }
 
 
@@ -178,99 +136,21 @@ public class Day24 {
      */
     private static String part2_example(final List<String> lines) {
 
-        Map<String, Boolean> values = new HashMap<>();
-
-        // Parse the inputs
-        lines.stream()
-             .filter(l -> l.contains(": "))
-             .map(l -> l.split(": "))
-             .forEach(v -> values.put(v[0], "1".equals(v[1])));
-
-        var functions = new DualHashBidiMap<>(Map.<String, BiFunction<Boolean, Boolean, Boolean>>of("AND", (a, b) -> a && b,
-                                                                                                    "OR", (a, b) -> a || b,
-                                                                                                    "XOR", (a, b) -> a ^ b));
-
-        // Parse the gates
-        var gates = lines.stream()
-                         .filter(l -> l.contains("->"))
-                         .map(l -> l.split(" "))
-                         .map(l -> new Gate(l[0], l[2], l[4], functions.get(l[1])))
-                         .toList();
-
-        Map<String, String> gateTypes = new HashMap<>();
-        gates.forEach(g -> gateTypes.put(g.result, functions.getKey(g.operation())));
-
-        /*Graph<String, DefaultEdge> graph = new SimpleDirectedGraph<>(DefaultEdge.class);
-        
-        gates.forEach(g -> {
-            graph.addVertex(g.input1());
-            graph.addVertex(g.input2());
-            graph.addVertex(g.result());
-            graph.addEdge(g.input1(), g.result());
-            graph.addEdge(g.input2(), g.result());
-        });
-        var exporter = new GmlExporter<String, DefaultEdge>();
-        exporter.setVertexAttributeProvider(v -> Map.of("label",
-                                                        DefaultAttribute.createAttribute(ObjectUtils.defaultIfNull(gateTypes.get(v), "") +
-                                                                                         "\n" + v)));
-        exporter.setParameter(GmlExporter.Parameter.EXPORT_VERTEX_LABELS, true);
-        
-        try (var fileOut = new FileWriter("Day 24 - part 2" + (log.isDebugEnabled() ? " - example" : "") + ".gml")) {
-            exporter.exportGraph(graph, fileOut);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }*/
-
         // The circuit is supposed to be an adder. See which outputs show up wrong given one bit at a time.
-        var inputBits = (int) values.keySet().stream().filter(k -> k.startsWith("x")).count();
-        IntStream.range(0, inputBits).forEach(i -> {
-            values.put(String.format("x%02d", i), false);
-            values.put(String.format("y%02d", i), false);
-        });
+        var circuit = CompiledCircuit.compile(lines);
+        var inputBits = circuit.inputBits();
 
         IntStream.range(0, inputBits).forEach(i -> {
-            if (i > 0) {
-                values.put(String.format("x%02d", i - 1), false);
-                values.put(String.format("y%02d", i - 1), false);
-            }
-            values.put(String.format("x%02d", i), true);
-            values.put(String.format("y%02d", i), true);
-
-            var outputValues = runCircuit(values, gates);
-
-            var xValues = outputValues.entrySet()
-                                      .stream()
-                                      .filter(e -> e.getKey().startsWith("x"))
-                                      .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                      .map(Entry::getValue)
-                                      .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                      .collect(Collectors.joining());
-            var yValues = outputValues.entrySet()
-                                      .stream()
-                                      .filter(e -> e.getKey().startsWith("y"))
-                                      .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                      .map(Entry::getValue)
-                                      .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                      .collect(Collectors.joining());
-            var zValues = outputValues.entrySet()
-                                      .stream()
-                                      .filter(e -> e.getKey().startsWith("z"))
-                                      .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                      .map(Entry::getValue)
-                                      .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                      .collect(Collectors.joining());
+            long x = 1L << i;
+            long y = 1L << i;
+            long z = circuit.evaluate(x, y);
 
             log.debug("X {} ({}) & Y {} ({}) = Z {} ({})",
-                      xValues, Long.parseLong(xValues, 2),
-                      yValues, Long.parseLong(yValues, 2),
-                      zValues, Long.parseLong(zValues, 2));
-            if ((Long.parseLong(xValues, 2) & Long.parseLong(yValues, 2)) != Long.parseLong(zValues, 2)) {
-                var zTrue = outputValues.entrySet()
-                                        .stream()
-                                        .filter(e -> e.getKey().startsWith("z") && e.getValue())
-                                        .map(Entry::getKey)
-                                        .toList();
-                log.warn(String.format("Output z%02d might need to swap with %s", i, zTrue.toString()));
+                      toBinary(x, inputBits), x,
+                      toBinary(y, inputBits), y,
+                      toBinary(z, circuit.outputBits()), z);
+            if ((x & y) != z) {
+                log.warn(String.format("Output z%02d might need to swap with %s", i, setOutputs(z)));
             }
 
         });
@@ -291,175 +171,80 @@ public class Day24 {
      */
     private static String part2(final List<String> lines) {
 
-        Map<String, Boolean> values = new HashMap<>();
-
-        // Parse the inputs
-        lines.stream()
-             .filter(l -> l.contains(": "))
-             .map(l -> l.split(": "))
-             .forEach(v -> values.put(v[0], "1".equals(v[1])));
-
-        var functions = new DualHashBidiMap<>(Map.<String, BiFunction<Boolean, Boolean, Boolean>>of("AND", (a, b) -> a && b,
-                                                                                                    "OR", (a, b) -> a || b,
-                                                                                                    "XOR", (a, b) -> a ^ b));
-
-        // Parse the gates
-        var gates = lines.stream()
-                         .filter(l -> l.contains("->"))
-                         .map(l -> l.split(" "))
-                         .map(l -> new Gate(l[0], l[2], l[4], functions.get(l[1])))
-                         .toList();
-
-        Map<String, String> gateTypes = new HashMap<>();
-        gates.forEach(g -> gateTypes.put(g.result, functions.getKey(g.operation())));
-
-        /*Graph<String, DefaultEdge> graph = new SimpleDirectedGraph<>(DefaultEdge.class);
-        
-        gates.forEach(g -> {
-            graph.addVertex(g.input1());
-            graph.addVertex(g.input2());
-            graph.addVertex(g.result());
-            graph.addEdge(g.input1(), g.result());
-            graph.addEdge(g.input2(), g.result());
-        });
-        var exporter = new GmlExporter<String, DefaultEdge>();
-        exporter.setVertexAttributeProvider(v -> Map.of("label",
-                                                        DefaultAttribute.createAttribute(ObjectUtils.defaultIfNull(gateTypes.get(v), "") +
-                                                                                         "\n" + v)));
-        exporter.setParameter(GmlExporter.Parameter.EXPORT_VERTEX_LABELS, true);
-        
-        try (var fileOut = new FileWriter("Day 24 - part 2" + (log.isDebugEnabled() ? " - example" : "") + ".gml")) {
-            exporter.exportGraph(graph, fileOut);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }*/
-
         // The circuit is supposed to be an adder. See which outputs show up wrong given one bit at a time.
-        var inputBits = (int) values.keySet().stream().filter(k -> k.startsWith("x")).count();
-        IntStream.range(0, inputBits).forEach(i -> {
-            values.put(String.format("x%02d", i), false);
-            values.put(String.format("y%02d", i), false);
-        });
+        var circuit = CompiledCircuit.compile(lines);
+        var inputBits = circuit.inputBits();
 
         IntStream.range(0, inputBits).forEach(i -> {
-            if (i > 0) {
-                values.put(String.format("x%02d", i - 1), false);
-                values.put(String.format("y%02d", i - 1), false);
-            }
-            values.put(String.format("x%02d", i), true);
-            values.put(String.format("y%02d", i), true);
-
-            var outputValues = runCircuit(values, gates);
-
-            var xValues = outputValues.entrySet()
-                                      .stream()
-                                      .filter(e -> e.getKey().startsWith("x"))
-                                      .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                      .map(Entry::getValue)
-                                      .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                      .collect(Collectors.joining());
-            var yValues = outputValues.entrySet()
-                                      .stream()
-                                      .filter(e -> e.getKey().startsWith("y"))
-                                      .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                      .map(Entry::getValue)
-                                      .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                      .collect(Collectors.joining());
-            var zValues = outputValues.entrySet()
-                                      .stream()
-                                      .filter(e -> e.getKey().startsWith("z"))
-                                      .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                      .map(Entry::getValue)
-                                      .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                      .collect(Collectors.joining());
+            long x = 1L << i;
+            long y = 1L << i;
+            long z = circuit.evaluate(x, y);
 
             log.debug("X {} ({}) + Y {} ({}) = Z {} ({})",
-                      xValues, Long.parseLong(xValues, 2),
-                      yValues, Long.parseLong(yValues, 2),
-                      zValues, Long.parseLong(zValues, 2));
-            if (Long.parseLong(xValues, 2) + Long.parseLong(yValues, 2) != Long.parseLong(zValues, 2)) {
-                var zTrue = outputValues.entrySet()
-                                        .stream()
-                                        .filter(e -> e.getKey().startsWith("z") && e.getValue())
-                                        .map(Entry::getKey)
-                                        .toList();
-                log.warn(String.format("Output z%02d might need to swap with %s", i + 1, zTrue.toString()));
+                      toBinary(x, inputBits), x,
+                      toBinary(y, inputBits), y,
+                      toBinary(z, circuit.outputBits()), z);
+            if (x + y != z) {
+                log.warn(String.format("Output z%02d might need to swap with %s", i + 1, setOutputs(z)));
             }
 
         });
 
-        IntStream.range(0, 100)
-                 .forEach(j -> {
-                     long x = RandomUtils.insecure().randomLong();
-                     long y = RandomUtils.insecure().randomLong();
-
-                     IntStream.range(0, inputBits).forEach(i -> {
-                         values.put(String.format("x%02d", i), (x & (int) Math.pow(2, i)) != 0);
-                         values.put(String.format("y%02d", i), (y & (int) Math.pow(2, i)) != 0);
-                     });
-
-                     var outputValues = runCircuit(values, gates);
-
-                     var xValues = outputValues.entrySet()
-                                               .stream()
-                                               .filter(e -> e.getKey().startsWith("x"))
-                                               .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                               .map(Entry::getValue)
-                                               .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                               .collect(Collectors.joining());
-                     var yValues = outputValues.entrySet()
-                                               .stream()
-                                               .filter(e -> e.getKey().startsWith("y"))
-                                               .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                               .map(Entry::getValue)
-                                               .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                               .collect(Collectors.joining());
-                     var zValues = outputValues.entrySet()
-                                               .stream()
-                                               .filter(e -> e.getKey().startsWith("z"))
-                                               .sorted(Comparator.comparing(Entry<String, Boolean>::getKey).reversed())
-                                               .map(Entry::getValue)
-                                               .map(b -> Boolean.TRUE.equals(b) ? "1" : "0")
-                                               .collect(Collectors.joining());
-
-                     log.debug("X {} ({}) + Y {} ({}) = Z {} ({})",
-                               xValues, Long.parseLong(xValues, 2),
-                               yValues, Long.parseLong(yValues, 2),
-                               zValues, Long.parseLong(zValues, 2));
-                     if (Long.parseLong(xValues, 2) + Long.parseLong(yValues, 2) != Long.parseLong(zValues, 2)) {
-                         log.error("Adder is not working!");
-                     }
-                 });
-
-        return Stream.of("z15", "z16", "z23", "z24", "nbc", "svm", "z39", "fnr").sorted().collect(Collectors.joining(","));
+        // Search for the swaps which make it add, checking 64 random sums at a time
+        var swapped = AdderRepair.findSwaps(circuit, SWAPS, new SplittableRandom(24))
+                                 .orElseThrow(() -> new IllegalStateException("No " + SWAPS + " swaps make the circuit add."));
+
+        return swapped.stream().sorted().collect(Collectors.joining(","));
     }
 
 
 
-    private static Map<String, Boolean> runCircuit(Map<String, Boolean> values, List<Gate> gates) {
+    /**
+     * @param value A value.
+     * @param bits The number of bits to show.
+     * @return The value in binary, padded with leading zeros to the number of
+     *         bits.
+     */
+    private static String toBinary(long value, int bits) {
+        var binary = Long.toBinaryString(value);
+        return "0".repeat(Math.max(bits - binary.length(), 0)) + binary;
+    }
 
-        Map<String, Boolean> localValues = new HashMap<>(values);
-        Queue<Gate> gatesToCheck = new ArrayDeque<>(gates);
-        while (!gatesToCheck.isEmpty()) {
-            var nextGate = gatesToCheck.poll();
 
-            if (localValues.containsKey(nextGate.input1()) &&
-                localValues.containsKey(nextGate.input2()) &&
-                !localValues.containsKey(nextGate.result())) {
-                localValues.put(nextGate.result(), nextGate.operation()
-                                                           .apply(localValues.get(nextGate.input1()), localValues.get(nextGate.input2())));
-            } else {
-                // Re-queue
-                gatesToCheck.add(nextGate);
-            }
-        }
 
-        return localValues;
+    /**
+     * @param z The value on the z wires.
+     * @return The names of the z wires which are set.
+     */
+    private static List<String> setOutputs(long z) {
+        return IntStream.range(0, Long.SIZE)
+                        .filter(i -> (z >>> i & 1) != 0)
+                        .mapToObj(i -> String.format("z%02d", i))
+                        .toList();
     }
 
 
 
-    private record Gate(String input1, String input2, String result, BiFunction<Boolean, Boolean, Boolean> operation) {
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day24.part1(lines);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return Day24.part2(lines);
+        }
     }
 
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import aoc.Coordinate;
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -107,4 +108,27 @@ public class Day25 {
 
 
 
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return Day25.part1(lines);
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            // There is no part 2 on the last day
+            return null;
+        }
+    }
+
 }
\ No newline at end of file
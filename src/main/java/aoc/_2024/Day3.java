@@ -3,12 +3,13 @@ package aoc._2024;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.LineSolver;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -36,11 +37,9 @@ public class Day3 {
         log.info("Part 1:");
         log.setLevel(Level.DEBUG);
 
-        // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-
+        // Stream the test file
         var expectedTestResult = 161;
-        var testResult = part1(testLines);
+        var testResult = part1(TEST_INPUT_TXT);
 
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
@@ -50,10 +49,8 @@ public class Day3 {
 
         log.setLevel(Level.INFO);
 
-        // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-
-        log.info(resultMessage, part1(lines));
+        // Stream the real file
+        log.info(resultMessage, part1(INPUT_TXT));
 
         // PART 2
         //        resultMessage = "{}";
@@ -62,7 +59,7 @@ public class Day3 {
         log.setLevel(Level.DEBUG);
 
         expectedTestResult = 48;
-        testResult = part2(testLines);
+        testResult = part2(TEST_INPUT_TXT);
 
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
@@ -72,7 +69,7 @@ public class Day3 {
 
         log.setLevel(Level.INFO);
 
-        log.info(resultMessage, part2(lines));
+        log.info(resultMessage, part2(INPUT_TXT));
     }
 
 
@@ -81,24 +78,35 @@ public class Day3 {
      * Scan the corrupted memory for uncorrupted mul instructions. What do you
      * get if you add up all of the results of the multiplications?
      * 
-     * @param lines The lines read from the input.
+     * @param fileName The input file, streamed one line at a time.
      * @return The sum of the valid {@code mul} expressions.
      */
-    private static int part1(final List<String> lines) {
+    private static long part1(final String fileName) {
+        return multiplications().solve(fileName);
+    }
+
+
+
+    /**
+     * @return A solver which adds up the valid {@code mul} expressions on
+     *         each line.
+     */
+    private static LineSolver multiplications() {
 
         Pattern regex = Pattern.compile("mul\\(\\d{1,3},\\d{1,3}\\)");
 
-        List<String> validExpressions = lines.stream()
-                                             .map(regex::matcher)
-                                             .flatMap(Matcher::results)
-                                             .map(MatchResult::group)
-                                             .toList();
+        return line -> {
+            List<String> validExpressions = regex.matcher(line)
+                                                 .results()
+                                                 .map(MatchResult::group)
+                                                 .toList();
 
-        log.debug("Valid expressions found: {}", validExpressions);
+            log.debug("Valid expressions found: {}", validExpressions);
 
-        return validExpressions.stream()
-                               .mapToInt(Day3::processInstruction)
-                               .sum();
+            return validExpressions.stream()
+                                   .mapToInt(Day3::processInstruction)
+                                   .sum();
+        };
     }
 
 
@@ -126,33 +134,74 @@ public class Day3 {
      * Handle the new instructions; what do you get if you add up all of the
      * results of just the enabled multiplications?
      * 
-     * @param lines The lines read from the input.
+     * @param fileName The input file, streamed one line at a time.
      * @return The sum of the valid {@code mul} expressions when enabled.
      */
-    private static int part2(final List<String> lines) {
+    private static long part2(final String fileName) {
+        return enabledMultiplications().solve(fileName);
+    }
 
-        Pattern regex = Pattern.compile("mul\\(\\d{1,3},\\d{1,3}\\)|do(n't)?\\(\\)");
 
-        List<String> validExpressions = lines.stream()
-                                             .map(regex::matcher)
-                                             .flatMap(Matcher::results)
-                                             .map(MatchResult::group)
-                                             .toList();
 
-        log.debug("Valid expressions found: {}", validExpressions);
+    /**
+     * @return A solver which adds up the valid {@code mul} expressions on
+     *         each line while they are enabled, starting out enabled.
+     */
+    private static LineSolver enabledMultiplications() {
+
+        Pattern regex = Pattern.compile("mul\\(\\d{1,3},\\d{1,3}\\)|do(n't)?\\(\\)");
 
+        // Whether the instructions are enabled carries over from one line to the next
         AtomicBoolean enabled = new AtomicBoolean(true);
-        return validExpressions.stream()
-                               .mapToInt(i -> {
-                                   var val = 0;
-                                   switch (i) {
-                                       case "do()" -> enabled.set(true);
-                                       case "don't()" -> enabled.set(false);
-                                       default -> val = enabled.get() ? processInstruction(i) : 0;
-                                   }
-                                   return val;
-                               })
-                               .sum();
+        return line -> {
+            List<String> validExpressions = regex.matcher(line)
+                                                 .results()
+                                                 .map(MatchResult::group)
+                                                 .toList();
+
+            log.debug("Valid expressions found: {}", validExpressions);
+
+            return validExpressions.stream()
+                                   .mapToInt(i -> {
+                                       var val = 0;
+                                       switch (i) {
+                                           case "do()" -> enabled.set(true);
+                                           case "don't()" -> enabled.set(false);
+                                           default -> val = enabled.get() ? processInstruction(i) : 0;
+                                       }
+                                       return val;
+                                   })
+                                   .sum();
+        };
+    }
+
+
+
+    /**
+     * Reads the whole input up front, so that the {@link Runner} counts reading
+     * it as parsing, then folds the lines in memory. {@code main} streams the
+     * file through the same {@link LineSolver}s instead.
+     */
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return multiplications().solve(lines.stream());
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return enabledMultiplications().solve(lines.stream());
+        }
     }
 
 }
\ No newline at end of file
@@ -1,14 +1,15 @@
 package aoc._2024;
 
 import java.util.List;
-import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.slf4j.LoggerFactory;
 
-import aoc.Coordinate;
 import aoc.Direction;
 import aoc.FileUtils;
+import aoc.Grid;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -40,13 +41,11 @@ public class Day4 {
         List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
 
         // Map the characters
-        final var testMap = Coordinate.mapCoordinates(testLines);
-        var rows = testLines.size();
-        var columns = testLines.getFirst().length();
+        final var testMap = Grid.of(testLines);
 
         log.atDebug()
            .setMessage("Parsed map:\n{}")
-           .addArgument(() -> Coordinate.printMap(rows, columns, testMap))
+           .addArgument(testMap)
            .log();
 
         var expectedTestResult = 18;
@@ -64,7 +63,7 @@ public class Day4 {
         List<String> lines = FileUtils.readFile(INPUT_TXT);
         // Map the characters
 
-        final var map = Coordinate.mapCoordinates(lines);
+        final var map = Grid.of(lines);
 
         log.info(resultMessage, part1(map));
 
@@ -97,14 +96,13 @@ public class Day4 {
      * @param map The mapped characters from the input.
      * @return The value calculated for part 1.
      */
-    private static long part1(final Map<Coordinate, Character> map) {
+    private static long part1(final Grid map) {
 
         // For each 'X' check the lines around it for the subsequent letters "MAS" and count matches
-        return map.entrySet()
-                  .stream()
-                  .filter(e -> e.getValue().equals('X'))
-                  .mapToLong(e -> findXmas(e.getKey(), map))
-                  .sum();
+        return IntStream.range(0, map.size())
+                        .filter(i -> map.get(i) == 'X')
+                        .mapToLong(i -> findXmas(map.rowOf(i), map.columnOf(i), map))
+                        .sum();
 
     }
 
@@ -113,20 +111,37 @@ public class Day4 {
     /**
      * Check each direction to see if the correct letters are present.
      * 
-     * @param fromX The {@link Coordinate} from which to start.
-     * @param map The map of characters, indexed by coordinate.
+     * @param row The row of the X from which to start.
+     * @param column The column of the X from which to start.
+     * @param map The grid of characters.
      * @return The number of directions in which the correct characters appear.
      */
-    private static long findXmas(Coordinate fromX, Map<Coordinate, Character> map) {
+    private static long findXmas(int row, int column, Grid map) {
         return Stream.of(Direction.values())
-                     .filter(d -> map.getOrDefault(fromX.translate(d, 1), ' ').equals('M') &&
-                                  map.getOrDefault(fromX.translate(d, 2), ' ').equals('A') &&
-                                  map.getOrDefault(fromX.translate(d, 3), ' ').equals('S'))
+                     .filter(d -> letterAt(map, row, column, d, 1) == 'M' &&
+                                  letterAt(map, row, column, d, 2) == 'A' &&
+                                  letterAt(map, row, column, d, 3) == 'S')
                      .count();
     }
 
 
 
+    /**
+     * @param map The grid of characters.
+     * @param row The row from which to start.
+     * @param column The column from which to start.
+     * @param direction The direction in which to look.
+     * @param distance How far to look.
+     * @return The letter at the given distance in the given direction, or the
+     *         blank space if that is outside the grid.
+     */
+    private static char letterAt(Grid map, int row, int column, Direction direction, int distance) {
+        return map.get(row + direction.getTranslation().getRow() * distance,
+                       column + direction.getTranslation().getColumn() * distance);
+    }
+
+
+
     /**
      * Flip the word search from the instructions back over to the word search
      * side and try again. How many times does an X-MAS appear?
@@ -134,14 +149,13 @@ public class Day4 {
      * @param map The mapped characters from the input.
      * @return The value calculated for part 2.
      */
-    private static long part2(final Map<Coordinate, Character> map) {
+    private static long part2(final Grid map) {
 
         // For each 'A' check the lines around it for the subsequent letters "M" and "S" and count matches
-        return map.entrySet()
-                  .stream()
-                  .filter(e -> e.getValue().equals('A'))
-                  .filter(e -> isXMas(e.getKey(), map))
-                  .count();
+        return IntStream.range(0, map.size())
+                        .filter(i -> map.get(i) == 'A')
+                        .filter(i -> isXMas(map.rowOf(i), map.columnOf(i), map))
+                        .count();
     }
 
 
@@ -149,15 +163,40 @@ public class Day4 {
     /**
      * Check each direction to see if the correct letters are present.
      * 
-     * @param fromA The {@link Coordinate} from which to start.
-     * @param map The map of characters, indexed by coordinate.
+     * @param row The row of the A from which to start.
+     * @param column The column of the A from which to start.
+     * @param map The grid of characters.
      * @return Whether there is an X-MAS at the given coordinate or not.
      */
-    private static boolean isXMas(Coordinate fromA, Map<Coordinate, Character> map) {
+    private static boolean isXMas(int row, int column, Grid map) {
         return Stream.of(Direction.UP_RIGHT, Direction.RIGHT_DOWN, Direction.DOWN_LEFT, Direction.LEFT_UP)
-                     .filter(d -> map.getOrDefault(fromA.translate(d, 1), ' ').equals('M') &&
-                                  map.getOrDefault(fromA.translate(d.opposite(), 1), ' ').equals('S'))
+                     .filter(d -> letterAt(map, row, column, d, 1) == 'M' &&
+                                  letterAt(map, row, column, d.opposite(), 1) == 'S')
                      .count() == 2;
     }
 
+
+
+    public static class Solution implements Solver<Grid> {
+
+        @Override
+        public Grid parse(String fileName) {
+            return Grid.of(FileUtils.readFile(fileName));
+        }
+
+
+
+        @Override
+        public Object part1(Grid map) {
+            return Day4.part1(map);
+        }
+
+
+
+        @Override
+        public Object part2(Grid map) {
+            return Day4.part2(map);
+        }
+    }
+
 }
\ No newline at end of file
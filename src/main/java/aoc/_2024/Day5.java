@@ -13,6 +13,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -41,19 +42,10 @@ public class Day5 {
         log.setLevel(Level.DEBUG);
 
         // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-
-        var testOrderingRules = testLines.stream()
-                                         .filter(l -> l.contains("|"))
-                                         .map(l -> new Order(Integer.parseInt(l.split("\\|")[0]), Integer.parseInt(l.split("\\|")[1])))
-                                         .collect(Collectors.groupingBy(Order::before,
-                                                                        Collectors.mapping(Order::after, Collectors.toList())));
-        var testPages = testLines.stream()
-                                 .filter(l -> l.contains(","))
-                                 .map(l -> Arrays.stream(l.split(","))
-                                                 .map(Integer::valueOf)
-                                                 .toList())
-                                 .toList();
+        var solution = new Solution();
+        var testManual = solution.parse(TEST_INPUT_TXT);
+        var testOrderingRules = testManual.orderingRules();
+        var testPages = testManual.pages();
 
         var expectedTestResult = 143;
         var testResult = part1(testPages, testOrderingRules);
@@ -67,20 +59,9 @@ public class Day5 {
         log.setLevel(Level.INFO);
 
         // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-
-        var orderingRules = lines.stream()
-                                 .filter(l -> l.contains("|"))
-                                 .map(l -> new Order(Integer.parseInt(l.split("\\|")[0]), Integer.parseInt(l.split("\\|")[1])))
-                                 .collect(Collectors.groupingBy(Order::before,
-                                                                Collectors.mapping(Order::after, Collectors.toList())));
-
-        var pages = lines.stream()
-                         .filter(l -> l.contains(","))
-                         .map(l -> Arrays.stream(l.split(","))
-                                         .map(Integer::valueOf)
-                                         .toList())
-                         .toList();
+        var manual = solution.parse(INPUT_TXT);
+        var orderingRules = manual.orderingRules();
+        var pages = manual.pages();
 
         log.info(resultMessage, part1(pages, orderingRules));
 
@@ -196,4 +177,45 @@ public class Day5 {
     public record Order(int before, int after) {
     }
 
+
+
+    private record Manual(List<List<Integer>> pages, Map<Integer, List<Integer>> orderingRules) {
+    }
+
+
+
+    public static class Solution implements Solver<Manual> {
+
+        @Override
+        public Manual parse(String fileName) {
+            List<String> lines = FileUtils.readFile(fileName);
+            var orderingRules = lines.stream()
+                                     .filter(l -> l.contains("|"))
+                                     .map(l -> new Order(Integer.parseInt(l.split("\\|")[0]), Integer.parseInt(l.split("\\|")[1])))
+                                     .collect(Collectors.groupingBy(Order::before,
+                                                                    Collectors.mapping(Order::after, Collectors.toList())));
+            var pages = lines.stream()
+                             .filter(l -> l.contains(","))
+                             .map(l -> Arrays.stream(l.split(","))
+                                             .map(Integer::valueOf)
+                                             .toList())
+                             .toList();
+            return new Manual(pages, orderingRules);
+        }
+
+
+
+        @Override
+        public Object part1(Manual manual) {
+            return Day5.part1(manual.pages(), manual.orderingRules());
+        }
+
+
+
+        @Override
+        public Object part2(Manual manual) {
+            return Day5.part2(manual.pages(), manual.orderingRules());
+        }
+    }
+
 }
\ No newline at end of file
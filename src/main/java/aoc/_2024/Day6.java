@@ -1,10 +1,8 @@
 package aoc._2024;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.Range;
 import org.slf4j.LoggerFactory;
@@ -12,6 +10,8 @@ import org.slf4j.LoggerFactory;
 import aoc.Coordinate;
 import aoc.Direction;
 import aoc.FileUtils;
+import aoc.Solver;
+import aoc.VisitedStates;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -39,19 +39,13 @@ public class Day6 {
         log.info("Part 1:");
         log.setLevel(Level.DEBUG);
 
-        // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-        var testMap = Coordinate.mapCoordinates(testLines);
-        // Find the guard in the map
-        var testGuard = testMap.entrySet()
-                               .stream()
-                               .filter(e -> e.getValue() != '#')
-                               .findAny()
-                               .map(e -> new Guard(e.getKey(), Direction.withSymbol(e.getValue())))
-                               .orElseThrow(() -> new IllegalStateException("Cannot find the guard."));
-        testMap.remove(testGuard.getPosition());
-        var testRows = testLines.size();
-        var testColumns = testLines.getFirst().length();
+        // Read the test file, finding the guard in the map
+        var solution = new Solution();
+        var testLab = solution.parse(TEST_INPUT_TXT);
+        var testMap = testLab.map();
+        var testGuard = testLab.guard();
+        var testRows = testLab.rows();
+        var testColumns = testLab.columns();
 
         var expectedTestResult = 41;
         var testResult = part1(testMap, testGuard, testRows, testColumns);
@@ -65,18 +59,11 @@ public class Day6 {
         log.setLevel(Level.INFO);
 
         // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-        var map = Coordinate.mapCoordinates(lines);
-        // Find the guard in the map
-        var guard = map.entrySet()
-                       .stream()
-                       .filter(e -> e.getValue() != '#')
-                       .findAny()
-                       .map(e -> new Guard(e.getKey(), Direction.withSymbol(e.getValue())))
-                       .orElseThrow(() -> new IllegalStateException("Cannot find the guard."));
-        map.remove(guard.getPosition());
-        var rows = lines.size();
-        var columns = lines.getFirst().length();
+        var lab = solution.parse(INPUT_TXT);
+        var map = lab.map();
+        var guard = lab.guard();
+        var rows = lab.rows();
+        var columns = lab.columns();
 
         log.info(resultMessage, part1(map, guard, rows, columns));
 
@@ -115,13 +102,13 @@ public class Day6 {
     private static long part1(final Map<Coordinate, Character> map, final Guard guard, int rows, int columns) {
 
         var movingGuard = new Guard(guard.getPosition(), guard.getDirection());
-        var visited = new HashSet<Coordinate>();
+        var visited = new VisitedStates(rows, columns, 1);
 
         var rowRange = Range.of(1, rows);
         var columnRange = Range.of(1, columns);
 
         while (rowRange.contains(movingGuard.getPosition().getRow()) && columnRange.contains(movingGuard.getPosition().getColumn())) {
-            visited.add(movingGuard.getPosition());
+            visited.add(movingGuard.getPosition().getRow() - 1, movingGuard.getPosition().getColumn() - 1, 0);
 
             var direction = movingGuard.getDirection();
             var newPosition = movingGuard.getPosition().translate(direction, 1);
@@ -134,7 +121,11 @@ public class Day6 {
         }
         log.atDebug()
            .setMessage("\n{}")
-           .addArgument(Coordinate.printMap(rows, columns, map.keySet(), '#', visited, 'X'))
+           .addArgument(() -> Coordinate.printMap(rows, columns, map.keySet(), '#',
+                                                  visited.indices()
+                                                         .mapToObj(i -> Coordinate.of(i / columns + 1, i % columns + 1))
+                                                         .collect(Collectors.toSet()),
+                                                  'X'))
            .log();
 
         return visited.size();
@@ -155,62 +146,12 @@ public class Day6 {
      */
     private static long part2(final Map<Coordinate, Character> map, final Guard guard, int rows, int columns) {
 
-        var movingGuard = new Guard(guard.getPosition(), guard.getDirection());
-        var visited = new HashMap<Coordinate, Set<Direction>>();
-
-        var rowRange = Range.of(1, rows);
-        var columnRange = Range.of(1, columns);
-
-        // Find the unobstructed path
-        while (rowRange.contains(movingGuard.getPosition().getRow()) && columnRange.contains(movingGuard.getPosition().getColumn())) {
-            var direction = movingGuard.getDirection();
-            visited.computeIfAbsent(movingGuard.getPosition(), p -> new HashSet<Direction>()).add(direction);
-
-            var newPosition = movingGuard.getPosition().translate(direction, 1);
-            if (map.containsKey(newPosition)) {
-                movingGuard.setDirection(direction.rotateRight(90));
-            } else {
-                movingGuard.setPosition(newPosition);
-            }
-
-        }
-        log.atDebug()
-           .setMessage("\n{}")
-           .addArgument(Coordinate.printMap(rows, columns, map.keySet(), '#', visited.keySet(), 'X'))
-           .log();
-
-        // Check everywhere, except for the start, to see if adding an obstruction would create a loop
-        var loopPositions = new HashSet<Coordinate>();
-        visited.keySet()
-               .stream()
-               .filter(l -> !l.equals(guard.getPosition()))
-               .forEach(obstruction -> {
-                   var movingGuard2 = new Guard(guard.getPosition(), guard.getDirection());
-                   var visited2 = new HashMap<Coordinate, Set<Direction>>();
-
-                   while (rowRange.contains(movingGuard2.getPosition().getRow()) &&
-                          columnRange.contains(movingGuard2.getPosition().getColumn())) {
-                       var direction = movingGuard2.getDirection();
-                       if (!visited2.computeIfAbsent(movingGuard2.getPosition(), p -> new HashSet<Direction>()).add(direction)) {
-                           loopPositions.add(obstruction);
-
-                           break;
-                       }
+        var patrol = new GuardPatrol(map, guard.getPosition(), guard.getDirection(), rows, columns);
 
-                       var newPosition = movingGuard2.getPosition().translate(direction, 1);
-                       if (map.containsKey(newPosition) || obstruction.equals(newPosition)) {
-                           movingGuard2.setDirection(direction.rotateRight(90));
-                       } else {
-                           movingGuard2.setPosition(newPosition);
-                       }
+        log.debug("Trying obstructions at {} positions", patrol.visitedCells() - 1);
 
-                   }
-
-               });
-
-        log.debug("Loops occur with obstructions at: {}", loopPositions);
-
-        return loopPositions.size();
+        // Try an obstruction everywhere the guard walks, except for the start
+        return patrol.countLoopsParallel();
     }
 
 
@@ -255,4 +196,42 @@ public class Day6 {
             this.direction = direction;
         }
     }
+
+
+
+    private record Lab(Map<Coordinate, Character> map, Guard guard, int rows, int columns) {
+    }
+
+
+
+    public static class Solution implements Solver<Lab> {
+
+        @Override
+        public Lab parse(String fileName) {
+            List<String> lines = FileUtils.readFile(fileName);
+            var map = Coordinate.mapCoordinates(lines);
+            var guard = map.entrySet()
+                           .stream()
+                           .filter(e -> e.getValue() != '#')
+                           .findAny()
+                           .map(e -> new Guard(e.getKey(), Direction.withSymbol(e.getValue())))
+                           .orElseThrow(() -> new IllegalStateException("Cannot find the guard."));
+            map.remove(guard.getPosition());
+            return new Lab(map, guard, lines.size(), lines.getFirst().length());
+        }
+
+
+
+        @Override
+        public Object part1(Lab lab) {
+            return Day6.part1(lab.map(), lab.guard(), lab.rows(), lab.columns());
+        }
+
+
+
+        @Override
+        public Object part2(Lab lab) {
+            return Day6.part2(lab.map(), lab.guard(), lab.rows(), lab.columns());
+        }
+    }
 }
\ No newline at end of file
@@ -4,11 +4,14 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.LineSolver;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -34,11 +37,9 @@ public class Day7 {
         log.info("Part 1:");
         log.setLevel(Level.DEBUG);
 
-        // Read the test file
-        List<String> testLines = FileUtils.readFile(TEST_INPUT_TXT);
-
+        // Stream the test file
         var expectedTestResult = 3749;
-        var testResult = part1(testLines);
+        var testResult = part1(TEST_INPUT_TXT);
 
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
@@ -48,10 +49,8 @@ public class Day7 {
 
         log.setLevel(Level.INFO);
 
-        // Read the real file
-        List<String> lines = FileUtils.readFile(INPUT_TXT);
-
-        log.info(resultMessage, part1(lines));
+        // Stream the real file
+        log.info(resultMessage, part1(INPUT_TXT));
 
         // PART 2
         resultMessage = "{}";
@@ -60,7 +59,7 @@ public class Day7 {
         log.setLevel(Level.DEBUG);
 
         expectedTestResult = 11_387;
-        testResult = part2(testLines);
+        testResult = part2(TEST_INPUT_TXT);
 
         log.info("Should be {}", expectedTestResult);
         log.info(resultMessage, testResult);
@@ -70,28 +69,34 @@ public class Day7 {
 
         log.setLevel(Level.INFO);
 
-        log.info(resultMessage, part2(lines));
+        log.info(resultMessage, part2(INPUT_TXT));
     }
 
     /**
      * Determine which equations could possibly be true.
      * What is their total calibration result?
      * 
-     * @param lines The lines read from the input.
+     * @param fileName The input file, streamed one equation at a time.
      * @return The value calculated for part 1.
      */
-    private static long part1(final List<String> lines) {
-
-        return lines.stream()
-                    .map(line -> line.split(": "))
-                    .map(p -> new Line(Long.parseLong(p[0]),
-                                       Arrays.stream(p[1].split(" "))
-                                             .map(Long::valueOf)
-                                             .toList()))
-                    .filter(Day7::linePossiblyTruePart1)
-                    .mapToLong(Line::total)
-                    .sum();
+    private static long part1(final String fileName) {
+
+        return calibration(Day7::linePossiblyTruePart1).solve(fileName);
+
+    }
+
+
 
+    /**
+     * @param possiblyTrue Whether an equation could possibly be true.
+     * @return A solver which adds up the totals of the equations which could
+     *         possibly be true.
+     */
+    private static LineSolver calibration(final Predicate<Line> possiblyTrue) {
+        return l -> {
+            var line = Line.parse(l);
+            return possiblyTrue.test(line) ? line.total() : 0;
+        };
     }
 
     /**
@@ -128,20 +133,12 @@ public class Day7 {
      * which equations could possibly be true.
      * What is their total calibration result?
      * 
-     * @param lines The lines read from the input.
+     * @param fileName The input file, streamed one equation at a time.
      * @return The value calculated for part 2.
      */
-    private static long part2(final List<String> lines) {
-
-        return lines.stream()
-                    .map(line -> line.split(": "))
-                    .map(p -> new Line(Long.parseLong(p[0]),
-                                       Arrays.stream(p[1].split(" "))
-                                             .map(Long::valueOf)
-                                             .toList()))
-                    .filter(Day7::linePossiblyTruePart2)
-                    .mapToLong(Line::total)
-                    .sum();
+    private static long part2(final String fileName) {
+
+        return calibration(Day7::linePossiblyTruePart2).solve(fileName);
     }
 
     /**
@@ -175,6 +172,47 @@ public class Day7 {
     }
 
     record Line(long total, List<Long> numbers) {
+
+        /**
+         * @param line A line of the input, like {@code 190: 10 19}.
+         * @return The parsed total and numbers.
+         */
+        static Line parse(String line) {
+            var parts = line.split(": ");
+            return new Line(Long.parseLong(parts[0]),
+                            Arrays.stream(parts[1].split(" "))
+                                  .map(Long::valueOf)
+                                  .toList());
+        }
+    }
+
+
+
+    /**
+     * Reads the whole input up front, so that the {@link Runner} counts reading
+     * it as parsing, then folds the lines in memory. {@code main} streams the
+     * file through the same {@link LineSolver}s instead.
+     */
+    public static class Solution implements Solver<List<String>> {
+
+        @Override
+        public List<String> parse(String fileName) {
+            return FileUtils.readFile(fileName);
+        }
+
+
+
+        @Override
+        public Object part1(List<String> lines) {
+            return calibration(Day7::linePossiblyTruePart1).solve(lines.stream());
+        }
+
+
+
+        @Override
+        public Object part2(List<String> lines) {
+            return calibration(Day7::linePossiblyTruePart2).solve(lines.stream());
+        }
     }
 
 }
\ No newline at end of file
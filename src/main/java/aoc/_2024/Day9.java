@@ -14,6 +14,7 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.slf4j.LoggerFactory;
 
 import aoc.FileUtils;
+import aoc.Solver;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -201,4 +202,28 @@ public class Day9 {
             return IntStream.range(0, size).mapToObj(i -> isEmpty ? null : id);
         }
     }
+
+
+
+    public static class Solution implements Solver<String> {
+
+        @Override
+        public String parse(String fileName) {
+            return FileUtils.readFile(fileName).getFirst();
+        }
+
+
+
+        @Override
+        public Object part1(String line) {
+            return Day9.part1(line);
+        }
+
+
+
+        @Override
+        public Object part2(String line) {
+            return Day9.part2(line);
+        }
+    }
 }
\ No newline at end of file
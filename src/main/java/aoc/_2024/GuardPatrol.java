@@ -0,0 +1,346 @@
+package aoc._2024;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import aoc.Coordinate;
+import aoc.Direction;
+import aoc.VisitedStates;
+
+/**
+ * The guard's patrol from Day 6, precomputed so that trying an extra
+ * obstruction doesn't mean walking the guard one step at a time.
+ * <p>
+ * The guard's state is their cell and which way they face, packed into an int
+ * as {@code cell * 4 + heading}, with cells numbered across each row from 0 and
+ * headings numbered clockwise from up, which is also its index in a
+ * {@link VisitedStates} with four directions. For every state, a jump table holds the
+ * state the guard will be in after their next turn, or {@link #EXIT} if they
+ * walk off the map first. An extra obstruction only changes a jump when it is
+ * in the guard's way, which takes a comparison to spot, so a walk with it only
+ * visits turning points.
+ * <p>
+ * Adding an obstruction can't change the guard's path until they first reach
+ * it, so each candidate is tried from the state just before the guard would
+ * walk into it on the unobstructed path.
+ * <p>
+ * Candidates are independent of each other, so {@link #countLoopsParallel()}
+ * splits them into a few chunks per worker and tries the chunks as a parallel
+ * stream, on the pool of the calling task if there is one, otherwise the
+ * common pool. Each chunk gets its own {@link Walker}, which goes once the
+ * chunk is done, and the loops are counted by the stream's reduction, so the
+ * chunks share nothing but the read-only jump table.
+ */
+public final class GuardPatrol {
+
+    /**
+     * The jump for a guard who walks off the map before turning again.
+     */
+    public static final int EXIT = -1;
+
+    /**
+     * How many chunks of candidates to make for each worker, so that workers
+     * finishing early can take over the rest.
+     */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private static final int[] ROW_STEP = { -1, 0, 1, 0 };
+
+    private static final int[] COLUMN_STEP = { 0, 1, 0, -1 };
+
+    private final int rows;
+
+    private final int columns;
+
+    private final boolean[] obstructed;
+
+    private final int[] jumps;
+
+    /** The cells first reached by the unobstructed patrol, except the start. */
+    private final int[] candidates;
+
+    /** The state just before the guard first walks into each candidate. */
+    private final int[] approaches;
+
+
+
+    /**
+     * @param map The obstructions on the map, keyed by coordinates starting at
+     *            1.
+     * @param position Where the guard starts.
+     * @param direction Which way the guard starts facing, one of the
+     *            orthogonal directions.
+     * @param rows The number of rows in the map.
+     * @param columns The number of columns in the map.
+     * @throws IllegalArgumentException If the guard is already walking in a
+     *             loop.
+     */
+    public GuardPatrol(Map<Coordinate, Character> map, Coordinate position, Direction direction, int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.obstructed = new boolean[rows * columns];
+        map.keySet().forEach(c -> obstructed[(c.getRow() - 1) * columns + c.getColumn() - 1] = true);
+
+        this.jumps = new int[rows * columns * 4];
+        buildJumps();
+
+        // Walk the unobstructed patrol, noting how the guard first reaches each cell
+        int[] firstReached = new int[rows * columns];
+        Arrays.fill(firstReached, EXIT);
+        int[] cells = new int[rows * columns];
+        int found = 0;
+        var states = new VisitedStates(rows, columns, 4);
+        int state = state((position.getRow() - 1) * columns + position.getColumn() - 1, heading(direction));
+        firstReached[cellOf(state)] = state;
+        while (true) {
+            if (!states.add(state))
+                throw new IllegalArgumentException("The guard never leaves the map.");
+            int next = step(state);
+            if (next == EXIT)
+                break;
+            if (cellOf(next) != cellOf(state) && firstReached[cellOf(next)] == EXIT) {
+                firstReached[cellOf(next)] = state;
+                cells[found++] = cellOf(next);
+            }
+            state = next;
+        }
+        this.candidates = Arrays.copyOf(cells, found);
+        this.approaches = new int[found];
+        for (int i = 0; i < found; i++)
+            approaches[i] = firstReached[candidates[i]];
+    }
+
+
+
+    /**
+     * @return The number of distinct cells the guard visits without any extra
+     *         obstruction, including where they start.
+     */
+    public int visitedCells() {
+        return candidates.length + 1;
+    }
+
+
+
+    /**
+     * @return The number of cells where a single extra obstruction would trap
+     *         the guard in a loop.
+     */
+    public int countLoops() {
+        return countLoops(0, candidates.length);
+    }
+
+
+
+    /**
+     * Count as {@link #countLoops()} does, trying chunks of the candidates in
+     * parallel, in the calling task's pool or the common pool.
+     *
+     * @return The number of cells where a single extra obstruction would trap
+     *         the guard in a loop.
+     */
+    public int countLoopsParallel() {
+        var current = ForkJoinTask.getPool();
+        var pool = current != null ? current : ForkJoinPool.commonPool();
+        int chunks = Math.min(candidates.length, pool.getParallelism() * CHUNKS_PER_WORKER);
+        return IntStream.range(0, chunks)
+                        .parallel()
+                        .map(chunk -> countLoops(candidates.length * chunk / chunks,
+                                                 candidates.length * (chunk + 1) / chunks))
+                        .sum();
+    }
+
+
+
+    /**
+     * @param from The index of the first candidate to try.
+     * @param to The index after the last candidate to try.
+     * @return The number of those candidates which would trap the guard in a
+     *         loop.
+     */
+    private int countLoops(int from, int to) {
+        var walker = new Walker();
+        int loops = 0;
+        for (int i = from; i < to; i++)
+            if (walker.loops(candidates[i], approaches[i]))
+                loops++;
+        return loops;
+    }
+
+
+
+    /**
+     * @param state A state, which must not be on an obstructed cell.
+     * @param obstruction The cell of an extra obstruction, or {@link #EXIT}
+     *            for none.
+     * @return The state after the guard's next turn, or {@link #EXIT} if they
+     *         walk off the map first.
+     */
+    int jump(int state, int obstruction) {
+        int target = jumps[state];
+        if (obstruction == EXIT)
+            return target;
+
+        int cell = cellOf(state);
+        int heading = headingOf(state);
+        int ahead = distanceAhead(cell, heading, obstruction);
+        if (ahead <= 0 || (target != EXIT && ahead > distanceAhead(cell, heading, cellOf(target))))
+            return target;
+
+        // The obstruction is in the way, so stop in front of it instead
+        int row = cell / columns + ROW_STEP[heading] * (ahead - 1);
+        int column = cell % columns + COLUMN_STEP[heading] * (ahead - 1);
+        return state(row * columns + column, turnRight(heading));
+    }
+
+
+
+    /**
+     * @param cell The cell to look from.
+     * @param heading The way to look.
+     * @param other Another cell.
+     * @return How many steps ahead the other cell is, or 0 if it isn't ahead
+     *         in that direction.
+     */
+    private int distanceAhead(int cell, int heading, int other) {
+        int rowDelta = other / columns - cell / columns;
+        int columnDelta = other % columns - cell % columns;
+        return switch (heading) {
+            case 0 -> columnDelta == 0 ? Math.max(-rowDelta, 0) : 0;
+            case 1 -> rowDelta == 0 ? Math.max(columnDelta, 0) : 0;
+            case 2 -> columnDelta == 0 ? Math.max(rowDelta, 0) : 0;
+            default -> rowDelta == 0 ? Math.max(-columnDelta, 0) : 0;
+        };
+    }
+
+
+
+    /**
+     * Take a single step, or turn, without any extra obstruction.
+     *
+     * @param state The current state.
+     * @return The next state, or {@link #EXIT} if the guard steps off the map.
+     */
+    private int step(int state) {
+        int cell = cellOf(state);
+        int heading = headingOf(state);
+        int row = cell / columns + ROW_STEP[heading];
+        int column = cell % columns + COLUMN_STEP[heading];
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return EXIT;
+        int next = row * columns + column;
+        return obstructed[next] ? state(cell, turnRight(heading)) : state(next, heading);
+    }
+
+
+
+    /**
+     * For each heading, sweep every line of the map against it, remembering
+     * the last free cell before the most recent obstruction passed.
+     */
+    private void buildJumps() {
+        for (int column = 0; column < columns; column++) {
+            int stop = EXIT;
+            for (int row = 0; row < rows; row++)
+                stop = sweep(row * columns + column, 0, stop, row + 1 < rows ? (row + 1) * columns + column : EXIT);
+            stop = EXIT;
+            for (int row = rows - 1; row >= 0; row--)
+                stop = sweep(row * columns + column, 2, stop, row > 0 ? (row - 1) * columns + column : EXIT);
+        }
+        for (int row = 0; row < rows; row++) {
+            int stop = EXIT;
+            for (int column = columns - 1; column >= 0; column--)
+                stop = sweep(row * columns + column, 1, stop, column > 0 ? row * columns + column - 1 : EXIT);
+            stop = EXIT;
+            for (int column = 0; column < columns; column++)
+                stop = sweep(row * columns + column, 3, stop, column + 1 < columns ? row * columns + column + 1 : EXIT);
+        }
+    }
+
+
+
+    /**
+     * @param cell The cell being swept.
+     * @param heading The heading being filled in.
+     * @param stop Where a guard at this cell would stop, or {@link #EXIT}.
+     * @param behind The cell behind this one for that heading, or
+     *            {@link #EXIT} at the edge.
+     * @return Where a guard at the next cell of the sweep would stop.
+     */
+    private int sweep(int cell, int heading, int stop, int behind) {
+        if (obstructed[cell]) {
+            jumps[state(cell, heading)] = EXIT;
+            return behind;
+        }
+        jumps[state(cell, heading)] = stop == EXIT ? EXIT : state(stop, turnRight(heading));
+        return stop;
+    }
+
+
+
+    private static int state(int cell, int heading) {
+        return cell * 4 + heading;
+    }
+
+
+
+    private static int cellOf(int state) {
+        return state >> 2;
+    }
+
+
+
+    private static int headingOf(int state) {
+        return state & 3;
+    }
+
+
+
+    private static int turnRight(int heading) {
+        return (heading + 1) & 3;
+    }
+
+
+
+    private static int heading(Direction direction) {
+        return switch (direction) {
+            case UP -> 0;
+            case RIGHT -> 1;
+            case DOWN -> 2;
+            case LEFT -> 3;
+            default -> throw new IllegalArgumentException("The guard can't face " + direction);
+        };
+    }
+
+
+
+    /**
+     * Walks the guard around the map with an extra obstruction, keeping the
+     * turning points seen in a set which is reused between walks.
+     */
+    final class Walker {
+
+        private final VisitedStates seen = new VisitedStates(rows, columns, 4);
+
+
+
+        /**
+         * @param obstruction The cell of the extra obstruction.
+         * @param from The state to start walking from.
+         * @return {@code true} if the guard ends up walking in a loop.
+         */
+        boolean loops(int obstruction, int from) {
+            seen.clear();
+            int state = from;
+            while (state != EXIT) {
+                if (!seen.add(state))
+                    return true;
+                state = jump(state, obstruction);
+            }
+            return false;
+        }
+    }
+}
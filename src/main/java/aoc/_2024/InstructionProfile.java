@@ -0,0 +1,148 @@
+package aoc._2024;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import aoc._2024.Computer.Instruction;
+
+/**
+ * Counts what a {@link Computer} does as it runs a program: how often each
+ * instruction is executed, how often jumps are taken, and how quickly values
+ * are output. Pass one to {@link Computer#run(java.util.List, InstructionProfile)}
+ * or {@link Computer#step(java.util.List, InstructionProfile)} to collect it;
+ * the plain {@code run} and {@code step} don't profile, so cost nothing extra.
+ * <p>
+ * A profile can be shared across many runs to add them up.
+ */
+public final class InstructionProfile {
+
+    private final long[] counts = new long[Instruction.values().length];
+
+    private long jumpsTaken;
+
+    private long outputs;
+
+    private long nanos;
+
+
+
+    /**
+     * Record one instruction being executed.
+     *
+     * @param instruction The instruction executed.
+     * @param jumped {@code true} if the instruction was a jump which was
+     *            taken.
+     */
+    void record(Instruction instruction, boolean jumped) {
+        counts[instruction.ordinal()]++;
+        if (jumped)
+            jumpsTaken++;
+        if (instruction == Instruction.OUT)
+            outputs++;
+    }
+
+
+
+    /**
+     * @param elapsed Nanoseconds spent running, to add to the total.
+     */
+    void addTime(long elapsed) {
+        nanos += elapsed;
+    }
+
+
+
+    /**
+     * Clear all the counts, ready to profile again.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        jumpsTaken = 0;
+        outputs = 0;
+        nanos = 0;
+    }
+
+
+
+    /**
+     * @return A snapshot of the counts so far.
+     */
+    public Report report() {
+        Map<Instruction, Long> byInstruction = new EnumMap<>(Instruction.class);
+        for (var instruction : Instruction.values())
+            byInstruction.put(instruction, counts[instruction.ordinal()]);
+        long steps = Stream.of(Instruction.values()).mapToLong(i -> counts[i.ordinal()]).sum();
+        return new Report(Collections.unmodifiableMap(byInstruction), steps, jumpsTaken,
+                          counts[Instruction.JNZ.ordinal()] - jumpsTaken, outputs, nanos);
+    }
+
+
+
+    @Override
+    public String toString() {
+        return report().toString();
+    }
+
+
+
+    /**
+     * The counts collected by a profile.
+     *
+     * @param counts The number of times each instruction was executed.
+     * @param steps The total number of instructions executed.
+     * @param jumpsTaken The number of jnz instructions which jumped.
+     * @param jumpsNotTaken The number of jnz instructions which fell through.
+     * @param outputs The number of values output.
+     * @param nanos The time spent in profiled runs, in nanoseconds. Zero if
+     *            only single steps were profiled.
+     */
+    public record Report(Map<Instruction, Long> counts, long steps, long jumpsTaken, long jumpsNotTaken, long outputs,
+                         long nanos) {
+
+        /**
+         * @return The fraction of jnz instructions which jumped, or 0 if there
+         *         were none.
+         */
+        public double jumpTakenRatio() {
+            long jumps = jumpsTaken + jumpsNotTaken;
+            return jumps == 0 ? 0 : (double) jumpsTaken / jumps;
+        }
+
+
+
+        /**
+         * @return The number of values output per instruction executed.
+         */
+        public double outputsPerStep() {
+            return steps == 0 ? 0 : (double) outputs / steps;
+        }
+
+
+
+        /**
+         * @return The number of values output per second of profiled running,
+         *         or 0 if no time was recorded.
+         */
+        public double outputsPerSecond() {
+            return nanos == 0 ? 0 : outputs * 1e9 / nanos;
+        }
+
+
+
+        @Override
+        public String toString() {
+            return counts.entrySet()
+                         .stream()
+                         .map(e -> String.format("%s: %d (%.1f%%)", e.getKey(), e.getValue(),
+                                                 steps == 0 ? 0.0 : 100.0 * e.getValue() / steps))
+                         .collect(Collectors.joining("\n")) +
+                   String.format("%nSteps: %d%nJumps taken: %d of %d (%.1f%%)%nOutputs: %d (%.3f per step, %.0f per second)",
+                                 steps, jumpsTaken, jumpsTaken + jumpsNotTaken, 100 * jumpTakenRatio(),
+                                 outputs, outputsPerStep(), outputsPerSecond());
+        }
+    }
+}
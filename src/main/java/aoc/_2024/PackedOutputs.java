@@ -0,0 +1,130 @@
+package aoc._2024;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outputs from running one program over a batch of starting values of
+ * register A, as produced by {@link Computer#runBatch(long[], List)}.
+ * <p>
+ * Every output value is between 0 and 7, so each takes three bits, and 21 of
+ * them are packed into each long. Each run has room for the same number of
+ * values; a run which outputs more than that keeps its true count, but only
+ * the values which fit.
+ */
+public final class PackedOutputs {
+
+    /** The number of bits each output value takes. */
+    static final int BITS = 3;
+
+    /** The number of output values packed into each long. */
+    static final int VALUES_PER_WORD = Long.SIZE / BITS;
+
+    private final long[] words;
+
+    private final int[] counts;
+
+    private final int wordsPerRun;
+
+    private final int capacity;
+
+
+
+    /**
+     * @param runs The number of runs in the batch.
+     * @param capacity The number of output values to keep for each run.
+     */
+    PackedOutputs(int runs, int capacity) {
+        this.capacity = capacity;
+        this.wordsPerRun = Math.max(1, (capacity + VALUES_PER_WORD - 1) / VALUES_PER_WORD);
+        this.words = new long[runs * wordsPerRun];
+        this.counts = new int[runs];
+    }
+
+
+
+    /**
+     * Record the next value output by a run.
+     *
+     * @param run The index of the run in the batch.
+     * @param value The value output, between 0 and 7.
+     */
+    void add(int run, int value) {
+        int index = counts[run]++;
+        if (index < capacity)
+            words[run * wordsPerRun + index / VALUES_PER_WORD] |= (long) value << (index % VALUES_PER_WORD * BITS);
+    }
+
+
+
+    /**
+     * @return The number of runs in the batch.
+     */
+    public int size() {
+        return counts.length;
+    }
+
+
+
+    /**
+     * @param run The index of the run in the batch.
+     * @return The number of values the run output, including any which didn't
+     *         fit.
+     */
+    public int count(int run) {
+        return counts[run];
+    }
+
+
+
+    /**
+     * @param run The index of the run in the batch.
+     * @return {@code true} if the run output more values than were kept.
+     */
+    public boolean isTruncated(int run) {
+        return counts[run] > capacity;
+    }
+
+
+
+    /**
+     * @param run The index of the run in the batch.
+     * @param index The position in the run's output, starting at 0.
+     * @return The value output at that position.
+     */
+    public int get(int run, int index) {
+        if (index >= Math.min(counts[run], capacity))
+            throw new IndexOutOfBoundsException(index);
+        return (int) (words[run * wordsPerRun + index / VALUES_PER_WORD] >>> (index % VALUES_PER_WORD * BITS)) & 7;
+    }
+
+
+
+    /**
+     * @param run The index of the run in the batch.
+     * @param expected The values to compare with.
+     * @return {@code true} if the run output exactly the expected values.
+     */
+    public boolean matches(int run, int[] expected) {
+        if (counts[run] != expected.length || isTruncated(run))
+            return false;
+        for (int i = 0; i < expected.length; i++)
+            if (get(run, i) != expected[i])
+                return false;
+        return true;
+    }
+
+
+
+    /**
+     * @param run The index of the run in the batch.
+     * @return The values the run output which were kept.
+     */
+    public List<Integer> toList(int run) {
+        int kept = Math.min(counts[run], capacity);
+        List<Integer> values = new ArrayList<>(kept);
+        for (int i = 0; i < kept; i++)
+            values.add(get(run, i));
+        return values;
+    }
+}
@@ -0,0 +1,299 @@
+package aoc._2024;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A static analysis of a Day 17 program, for the common shape where the
+ * program is one loop which:
+ * <ul>
+ * <li>ends with the only jump, {@code jnz 0}, back to the start,</li>
+ * <li>shifts A right by a fixed number of bits, with the only {@code adv}, and
+ * a literal operand,</li>
+ * <li>outputs exactly one value, and</li>
+ * <li>sets B and C from A before reading them, so nothing carries over from
+ * one time round the loop to the next except A.</li>
+ * </ul>
+ * In that shape output {@code i} is a function of {@code A >> (shift * i)}
+ * alone, and only of its lowest {@link #window()} bits. So rather than
+ * simulating whole programs, the lowest A giving any output can be solved for
+ * directly, a digit at a time from the last output back to the first.
+ */
+public final class ProgramAnalysis {
+
+    private final int[] code;
+
+    private final int shift;
+
+    private final int window;
+
+
+
+    private ProgramAnalysis(int[] code, int shift, int window) {
+        this.code = code;
+        this.shift = shift;
+        this.window = window;
+    }
+
+
+
+    /**
+     * @param program The program instructions and inputs.
+     * @return The analysis of the program, or nothing if it isn't the shape
+     *         this analysis understands.
+     */
+    public static Optional<ProgramAnalysis> analyze(List<Integer> program) {
+        int[] code = program.stream().mapToInt(Integer::intValue).toArray();
+        int end = code.length - 2;
+        if (code.length < 4 || code.length % 2 != 0 || code[end] != 3 || code[end + 1] != 0)
+            return Optional.empty();
+
+        // Each register holds what its lowest three bits depend on, and how big it can get
+        Bits a = Bits.shiftedA(0);
+        Bits b = Bits.UNKNOWN;
+        Bits c = Bits.UNKNOWN;
+        int shift = -1;
+        int outputs = 0;
+        int window = 0;
+
+        for (int ip = 0; ip < end; ip += 2) {
+            int operand = code[ip + 1];
+            switch (code[ip]) {
+                case 0 -> {
+                    // The one shift of A, by a literal amount
+                    if (shift >= 0 || operand < 1 || operand > 3)
+                        return Optional.empty();
+                    shift = operand;
+                    a = Bits.shiftedA(shift);
+                }
+                case 1 -> b = b.xor(Bits.literal(operand));
+                case 2 -> b = combo(operand, a, b, c).mod8();
+                case 3 -> {
+                    return Optional.empty();
+                }
+                case 4 -> b = b.xor(c);
+                case 5 -> {
+                    var value = combo(operand, a, b, c);
+                    if (!value.isKnown())
+                        return Optional.empty();
+                    window = value.window();
+                    outputs++;
+                }
+                case 6 -> b = a.shiftedBy(combo(operand, a, b, c));
+                case 7 -> c = a.shiftedBy(combo(operand, a, b, c));
+                default -> {
+                    return Optional.empty();
+                }
+            }
+        }
+
+        if (shift < 0 || outputs != 1)
+            return Optional.empty();
+
+        return Optional.of(new ProgramAnalysis(code, shift, window));
+    }
+
+
+
+    private static Bits combo(int operand, Bits a, Bits b, Bits c) {
+        return switch (operand) {
+            case 0, 1, 2, 3 -> Bits.literal(operand);
+            case 4 -> a;
+            case 5 -> b;
+            case 6 -> c;
+            default -> Bits.UNKNOWN;
+        };
+    }
+
+
+
+    /**
+     * @return The number of bits A is shifted right by each time round the
+     *         loop.
+     */
+    public int shift() {
+        return shift;
+    }
+
+
+
+    /**
+     * @return The number of bits of A, as it is at the start of the loop, which
+     *         the output from that time round the loop depends on.
+     */
+    public int window() {
+        return window;
+    }
+
+
+
+    /**
+     * @param position The position in the output, starting at 0.
+     * @return A mask of the bits of the initial value of A which the output at
+     *         that position depends on.
+     */
+    public long dependencyMask(int position) {
+        int from = shift * position;
+        if (from >= Long.SIZE)
+            return 0;
+        long mask = window >= Long.SIZE ? -1L : (1L << window) - 1;
+        return mask << from;
+    }
+
+
+
+    /**
+     * Evaluate the loop body once, without looping.
+     *
+     * @param a The value of A at the start of the loop.
+     * @return The value output that time round the loop.
+     */
+    public int outputFor(long a) {
+        long b = 0;
+        long c = 0;
+        int output = 0;
+        for (int ip = 0; ip < code.length - 2; ip += 2) {
+            int operand = code[ip + 1];
+            switch (code[ip]) {
+                case 0 -> a = CompiledProgram.divide(a, operand);
+                case 1 -> b ^= operand;
+                case 2 -> b = CompiledProgram.combo(operand, a, b, c) % 8;
+                case 4 -> b ^= c;
+                case 5 -> output = (int) (CompiledProgram.combo(operand, a, b, c) % 8);
+                case 6 -> b = CompiledProgram.divide(a, CompiledProgram.combo(operand, a, b, c));
+                case 7 -> c = CompiledProgram.divide(a, CompiledProgram.combo(operand, a, b, c));
+                default -> throw new IllegalStateException("Unexpected opcode " + code[ip]);
+            }
+        }
+        return output;
+    }
+
+
+
+    /**
+     * @return The lowest value of A which makes the program output a copy of
+     *         itself, or -1 if there isn't one.
+     */
+    public long solveQuine() {
+        return solve(code);
+    }
+
+
+
+    /**
+     * Solve for the lowest value of A which makes the program output exactly
+     * the expected values. Since output {@code i} only depends on
+     * {@code A >> (shift * i)}, the digits of A are chosen from the top down,
+     * lowest first, each checked against its output alone.
+     *
+     * @param expected The values the program should output.
+     * @return The lowest value of A which outputs them, or -1 if there isn't
+     *         one.
+     */
+    public long solve(int[] expected) {
+        if (expected.length == 0 || (long) shift * expected.length >= Long.SIZE)
+            return -1;
+        return solve(expected, expected.length - 1, 0);
+    }
+
+
+
+    /**
+     * @param expected The values the program should output.
+     * @param position The output position to choose a digit for.
+     * @param higher The digits of A already chosen, for the later positions.
+     * @return The lowest value of A with those higher digits which outputs
+     *         the expected values, or -1 if there isn't one.
+     */
+    private long solve(int[] expected, int position, long higher) {
+        if (position < 0)
+            return higher;
+
+        // The loop must still be running for the last output, so its digit can't be zero
+        int first = position == expected.length - 1 ? 1 : 0;
+        for (int digit = first; digit < 1 << shift; digit++) {
+            long a = higher << shift | digit;
+            if (outputFor(a) == expected[position]) {
+                long found = solve(expected, position - 1, a);
+                if (found >= 0)
+                    return found;
+            }
+        }
+        return -1;
+    }
+
+
+
+    @Override
+    public String toString() {
+        return String.format("Loop shifting A by %d bits, each output depending on %d bits of A", shift, window);
+    }
+
+
+
+    /**
+     * What the analysis knows about a register: which bits of A its lowest
+     * three bits can depend on, and the largest value it can hold.
+     *
+     * @param window The number of bits of A, from the start of the loop, which
+     *            the lowest three bits depend on, or -1 if unknown.
+     * @param bound The largest value the register can hold, or -1 if it isn't
+     *            bounded.
+     */
+    private record Bits(int window, long bound) {
+
+        /** A value left over from the last time round the loop. */
+        static final Bits UNKNOWN = new Bits(-1, -1);
+
+
+
+        static Bits literal(long value) {
+            return new Bits(0, value);
+        }
+
+
+
+        /**
+         * @param shift The number of bits A has been shifted right by so far.
+         * @return The A register.
+         */
+        static Bits shiftedA(int shift) {
+            return new Bits(shift + 3, -1);
+        }
+
+
+
+        boolean isKnown() {
+            return window >= 0;
+        }
+
+
+
+        Bits mod8() {
+            return isKnown() ? new Bits(window, Math.min(bound < 0 ? 7 : bound, 7)) : UNKNOWN;
+        }
+
+
+
+        Bits xor(Bits other) {
+            if (!isKnown() || !other.isKnown())
+                return UNKNOWN;
+            long largest = Math.max(bound, other.bound);
+            long combined = bound < 0 || other.bound < 0 ? -1 : largest == 0 ? 0 : (Long.highestOneBit(largest) << 1) - 1;
+            return new Bits(Math.max(window, other.window), combined);
+        }
+
+
+
+        /**
+         * @param amount The amount this register, which must be A, is shifted
+         *            right by.
+         * @return The result of the shift.
+         */
+        Bits shiftedBy(Bits amount) {
+            if (!isKnown() || !amount.isKnown() || amount.bound < 0 || amount.bound > Long.SIZE)
+                return UNKNOWN;
+            return new Bits(Math.max(window + (int) amount.bound, amount.window), -1);
+        }
+    }
+}
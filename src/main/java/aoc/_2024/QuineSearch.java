@@ -0,0 +1,153 @@
+package aoc._2024;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the lowest value of register A which makes a Day 17 program output a
+ * copy of itself.
+ * <p>
+ * Programs of this kind shift A right by three bits each time round their
+ * loop, so the last output depends only on the highest octal digit of A, the
+ * one before on the two highest digits, and so on. The search builds A one
+ * octal digit at a time from the top, and only continues from prefixes whose
+ * output already matches the end of the program. Each matching prefix becomes
+ * a {@link RecursiveTask}, so the search spreads across a {@link ForkJoinPool}
+ * with work stealing.
+ * <p>
+ * Every candidate has the same number of digits, so a prefix with a lower
+ * digit always leads to lower values. Children are joined in digit order and
+ * the first answer wins, which keeps the result deterministic however the
+ * tasks are scheduled.
+ */
+public final class QuineSearch {
+
+    /**
+     * Utility classes have private constructors.
+     */
+    private QuineSearch() {
+    }
+
+
+
+    /**
+     * Search on the pool the caller is running in, such as the one the
+     * {@link Runner} limits with {@code --parallel}, or on the common pool if
+     * it isn't running in one.
+     *
+     * @param program The program instructions and inputs.
+     * @return The lowest value of A which outputs the program, or -1 if there
+     *         isn't one.
+     */
+    public static long findLowest(List<Integer> program) {
+        var current = ForkJoinTask.getPool();
+        return findLowest(program, current != null ? current : ForkJoinPool.commonPool());
+    }
+
+
+
+    /**
+     * @param program The program instructions and inputs.
+     * @param pool The pool to search on.
+     * @return The lowest value of A which outputs the program, or -1 if there
+     *         isn't one.
+     */
+    public static long findLowest(List<Integer> program, ForkJoinPool pool) {
+        var compiled = CompiledProgram.compile(program);
+        int[] code = program.stream().mapToInt(Integer::intValue).toArray();
+        return pool.invoke(new PrefixTask(compiled, code, 0, 0));
+    }
+
+
+
+    /**
+     * Search for several programs at once, sharing one pool between them.
+     *
+     * @param programs The programs to search for.
+     * @param pool The pool to search on.
+     * @return The lowest value of A for each program, in the same order, with
+     *         -1 for any which have no answer.
+     */
+    public static long[] findLowestForEach(List<List<Integer>> programs, ForkJoinPool pool) {
+        List<PrefixTask> tasks = new ArrayList<>(programs.size());
+        for (var program : programs)
+            tasks.add(new PrefixTask(CompiledProgram.compile(program),
+                                     program.stream().mapToInt(Integer::intValue).toArray(), 0, 0));
+
+        return pool.submit(() -> RecursiveTask.invokeAll(tasks)
+                                              .stream()
+                                              .mapToLong(PrefixTask::join)
+                                              .toArray())
+                   .join();
+    }
+
+
+
+    /**
+     * Try each octal digit after a prefix of A which already produces the
+     * last {@code matched} values of the program.
+     */
+    private static final class PrefixTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Tasks are never serialized, but the program couldn't be anyway. */
+        private final transient CompiledProgram compiled;
+
+        private final int[] code;
+
+        private final long prefix;
+
+        private final int matched;
+
+
+
+        PrefixTask(CompiledProgram compiled, int[] code, long prefix, int matched) {
+            this.compiled = compiled;
+            this.code = code;
+            this.prefix = prefix;
+            this.matched = matched;
+        }
+
+
+
+        @Override
+        protected Long compute() {
+            if (matched == code.length)
+                return prefix;
+
+            // Find the digits which extend the match, in order
+            var machine = new RegisterComputer(code.length);
+            List<PrefixTask> children = new ArrayList<>(8);
+            for (int digit = 0; digit <= 7; digit++) {
+                long candidate = prefix * 8 + digit;
+                machine.reset();
+                machine.setA(candidate);
+                compiled.run(machine);
+                if (machine.outputEquals(code, code.length - matched - 1))
+                    children.add(new PrefixTask(compiled, code, candidate, matched + 1));
+            }
+
+            if (children.isEmpty())
+                return -1L;
+
+            // Fork all but the first, which is the most likely answer, so do it here
+            for (int i = children.size() - 1; i > 0; i--)
+                children.get(i).fork();
+
+            long lowest = children.getFirst().compute();
+            for (int i = 1; i < children.size(); i++) {
+                var child = children.get(i);
+                if (lowest >= 0)
+                    // Already found a lower answer, so skip it if no one has started it
+                    child.tryUnfork();
+                else
+                    lowest = child.join();
+            }
+            return lowest;
+        }
+    }
+}
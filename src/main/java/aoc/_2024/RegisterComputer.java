@@ -0,0 +1,233 @@
+package aoc._2024;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The computer from Day 17, with its registers held as primitives and its
+ * output in a reusable buffer. Unlike {@link Computer}, running a program
+ * neither boxes values nor allocates, and {@link #reset()} clears the machine
+ * in place, so one instance can be reused across millions of runs.
+ * <p>
+ * {@link #toComputer()} gives a {@link Computer} with the same state, for
+ * printing or debugging.
+ */
+public final class RegisterComputer {
+
+    private static final int DEFAULT_OUTPUT_CAPACITY = 16;
+
+    private long a;
+
+    private long b;
+
+    private long c;
+
+    private int ip;
+
+    private int[] output;
+
+    private int outputSize;
+
+
+
+    public RegisterComputer() {
+        this(DEFAULT_OUTPUT_CAPACITY);
+    }
+
+
+
+    /**
+     * @param outputCapacity The number of values the computer can output
+     *            before its buffer needs to grow.
+     */
+    public RegisterComputer(int outputCapacity) {
+        this.output = new int[Math.max(outputCapacity, 1)];
+    }
+
+
+
+    public long getA() {
+        return a;
+    }
+
+
+
+    public void setA(long a) {
+        this.a = a;
+    }
+
+
+
+    public long getB() {
+        return b;
+    }
+
+
+
+    public void setB(long b) {
+        this.b = b;
+    }
+
+
+
+    public long getC() {
+        return c;
+    }
+
+
+
+    public void setC(long c) {
+        this.c = c;
+    }
+
+
+
+    public int getInstructionPointer() {
+        return ip;
+    }
+
+
+
+    public void setInstructionPointer(int ip) {
+        this.ip = ip;
+    }
+
+
+
+    /**
+     * Execute the entire program.
+     *
+     * @param program The program instructions and inputs.
+     */
+    public void run(int[] program) {
+        while (this.step(program))
+            ;
+    }
+
+
+
+    /**
+     * Execute the next instruction in the program based on the instruction
+     * pointer.
+     *
+     * @param program The program instructions and inputs.
+     * @return {@code true} if the program can continue. {@code false} if the
+     *         instruction pointer is past the end of the program.
+     */
+    public boolean step(int[] program) {
+        if (ip < program.length) {
+            int operand = program[ip + 1];
+            switch (program[ip]) {
+                case 0 -> a = CompiledProgram.divide(a, CompiledProgram.combo(operand, a, b, c));
+                case 1 -> b ^= operand;
+                case 2 -> b = CompiledProgram.combo(operand, a, b, c) % 8;
+                case 3 -> {
+                    if (a != 0) {
+                        ip = operand;
+                        return ip < program.length;
+                    }
+                }
+                case 4 -> b ^= c;
+                case 5 -> addOutput((int) (CompiledProgram.combo(operand, a, b, c) % 8));
+                case 6 -> b = CompiledProgram.divide(a, CompiledProgram.combo(operand, a, b, c));
+                case 7 -> c = CompiledProgram.divide(a, CompiledProgram.combo(operand, a, b, c));
+                default -> throw new IllegalArgumentException("Unknown opcode " + program[ip]);
+            }
+            ip += 2;
+        }
+        return ip < program.length;
+    }
+
+
+
+    /**
+     * Reset all registers to 0, and clear the output, keeping the output
+     * buffer.
+     */
+    public void reset() {
+        a = 0;
+        b = 0;
+        c = 0;
+        ip = 0;
+        outputSize = 0;
+    }
+
+
+
+    /**
+     * Add a value to the output.
+     *
+     * @param value The value to output.
+     */
+    void addOutput(int value) {
+        if (outputSize == output.length)
+            output = Arrays.copyOf(output, output.length * 2);
+        output[outputSize++] = value;
+    }
+
+
+
+    /**
+     * @return The number of values output so far.
+     */
+    public int outputSize() {
+        return outputSize;
+    }
+
+
+
+    /**
+     * @param index The position in the output, starting at 0.
+     * @return The value output at that position.
+     */
+    public int output(int index) {
+        if (index >= outputSize)
+            throw new IndexOutOfBoundsException(index);
+        return output[index];
+    }
+
+
+
+    /**
+     * Check the output against part of an array, without copying either.
+     *
+     * @param values The values to compare with.
+     * @param from The index of the first value to compare with.
+     * @return {@code true} if the output is exactly the values from the given
+     *         index to the end of the array.
+     */
+    public boolean outputEquals(int[] values, int from) {
+        return Arrays.equals(output, 0, outputSize, values, from, values.length);
+    }
+
+
+
+    /**
+     * @return A copy of the output.
+     */
+    public List<Integer> getOutput() {
+        return Arrays.stream(output, 0, outputSize).boxed().toList();
+    }
+
+
+
+    /**
+     * @return A {@link Computer} in the same state as this one.
+     */
+    public Computer toComputer() {
+        var computer = new Computer();
+        computer.registers().put(Computer.REGISTER_A, a);
+        computer.registers().put(Computer.REGISTER_B, b);
+        computer.registers().put(Computer.REGISTER_C, c);
+        computer.registers().put(Computer.INSTRUCTION_POINTER, (long) ip);
+        computer.output().addAll(getOutput());
+        return computer;
+    }
+
+
+
+    @Override
+    public String toString() {
+        return toComputer().toString();
+    }
+}
@@ -0,0 +1,306 @@
+package aoc._2024;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.slf4j.LoggerFactory;
+
+import aoc.Solver;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+/**
+ * Run any or all of the days' {@link Solver}s against the real inputs,
+ * reporting the answers along with how long, and how much memory, parsing and
+ * each part took.
+ * <p>
+ * Options:
+ * <ul>
+ * <li>{@code --days 1,3,5-7} - the days to run, all of them by default.</li>
+ * <li>{@code --warmup n} - untimed runs of each day before measuring, 0 by
+ * default.</li>
+ * <li>{@code --runs n} - timed runs of each day, 1 by default. The fastest run
+ * is reported.</li>
+ * <li>{@code --parallel n} - how many days to run at once, 1 by default. The
+ * days share one JVM, so later days benefit from the JIT warming up on
+ * earlier ones.</li>
+ * </ul>
+ * Days run on a {@link ForkJoinPool} of that many threads, and any parallel
+ * streams inside a day run on the same pool, so the cap covers those too.
+ * Timings and allocations are measured per day, on the thread running it.
+ * Allocations are only those of that calling thread: anything a day allocates
+ * in parallel streams, on the pool's other threads, isn't counted, since
+ * those threads may be working on other days at the same time.
+ *
+ * @author Paul Cormier
+ *
+ */
+public class Runner {
+
+    private static final Logger log = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Runner.class);
+
+    private static final String INPUT_TXT = "input/Day%d.txt";
+
+    private static final int LAST_DAY = 25;
+
+    public static void main(String[] args) {
+
+        var options = Options.parse(args);
+
+        log.atInfo()
+           .setMessage("Running days {} with {} warm-up and {} timed runs, {} at a time")
+           .addArgument(options.days())
+           .addArgument(options.warmup())
+           .addArgument(options.runs())
+           .addArgument(options.parallelism())
+           .log();
+
+        long start = System.nanoTime();
+        long totalNanos = 0;
+
+        var pool = new ForkJoinPool(options.parallelism());
+        try {
+            // Submit every day up front, then report them in order as they finish
+            var tasks = options.days()
+                               .stream()
+                               .map(day -> pool.submit(() -> timeDay(day, options)))
+                               .toList();
+
+            for (int i = 0; i < tasks.size(); i++) {
+                int day = options.days().get(i);
+                Optional<Result> result;
+                try {
+                    result = tasks.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("Day {} failed", day, e.getCause());
+                    continue;
+                }
+
+                if (result.isEmpty()) {
+                    log.warn("Day {} has no solver.", day);
+                    continue;
+                }
+
+                var fastest = result.get();
+                totalNanos += fastest.totalNanos();
+
+                log.info("Day {}: part 1 = {}, part 2 = {}", day, fastest.part1(), fastest.part2());
+                log.atInfo()
+                   .setMessage("    parse {} ms, part 1 {} ms, part 2 {} ms, total {} ms, allocated {} KB on the calling thread")
+                   .addArgument(() -> millis(fastest.parseNanos()))
+                   .addArgument(() -> millis(fastest.part1Nanos()))
+                   .addArgument(() -> millis(fastest.part2Nanos()))
+                   .addArgument(() -> millis(fastest.totalNanos()))
+                   .addArgument(fastest.allocatedBytes() < 0 ? "?" : fastest.allocatedBytes() / 1024)
+                   .log();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        log.info("Total: {} ms, wall-clock: {} ms", millis(totalNanos), millis(System.nanoTime() - start));
+    }
+
+
+
+    /**
+     * Warm up a day, then time it.
+     *
+     * @param day The day to run.
+     * @param options The number of warm-up and timed runs.
+     * @return The fastest of the timed runs, or nothing if the day has no
+     *         solver.
+     */
+    private static Optional<Result> timeDay(int day, Options options) {
+        var solver = findSolver(day);
+        if (solver.isEmpty())
+            return Optional.empty();
+
+        var fileName = String.format(INPUT_TXT, day);
+        for (int i = 0; i < options.warmup(); i++)
+            run(solver.get(), fileName);
+
+        return IntStream.range(0, options.runs())
+                        .mapToObj(i -> run(solver.get(), fileName))
+                        .min((a, b) -> Long.compare(a.totalNanos(), b.totalNanos()));
+    }
+
+
+
+    /**
+     * @param day The day to look for.
+     * @return The solver nested in the given day's class, if it has one.
+     */
+    public static Optional<Solver<?>> findSolver(int day) {
+        try {
+            var solverClass = Class.forName(Runner.class.getPackageName() + ".Day" + day + "$Solution");
+            if (!Solver.class.isAssignableFrom(solverClass))
+                return Optional.empty();
+            return Optional.of((Solver<?>) solverClass.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the solver for day " + day, e);
+        }
+    }
+
+
+
+    /**
+     * Parse the input and solve both parts once, timing each step. The input
+     * is parsed afresh, so that nothing carries over from a previous run.
+     *
+     * @param solver The solver to run.
+     * @param fileName The name of the input file on the classpath.
+     * @return The answers and the measurements from this run.
+     */
+    public static <I> Result run(Solver<I> solver, String fileName) {
+        var allocated = new AllocationCounter();
+
+        long start = System.nanoTime();
+        var input = solver.parse(fileName);
+        long parsed = System.nanoTime();
+        var part1 = solver.part1(input);
+        long part1Done = System.nanoTime();
+        var part2 = solver.part2(input);
+        long part2Done = System.nanoTime();
+
+        return new Result(part1, part2, parsed - start, part1Done - parsed, part2Done - part1Done, allocated.since());
+    }
+
+
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+
+
+    /**
+     * The answers and measurements from a single run of a day.
+     *
+     * @param part1 The answer to part 1.
+     * @param part2 The answer to part 2.
+     * @param parseNanos How long reading and parsing the input took.
+     * @param part1Nanos How long part 1 took.
+     * @param part2Nanos How long part 2 took.
+     * @param allocatedBytes The bytes allocated by the thread calling
+     *            {@link Runner#run(Solver, String)}, not counting any other
+     *            threads it handed work to, or -1 if the JVM cannot measure
+     *            them.
+     */
+    public record Result(Object part1, Object part2, long parseNanos, long part1Nanos, long part2Nanos,
+                         long allocatedBytes) {
+
+        public long totalNanos() {
+            return parseNanos + part1Nanos + part2Nanos;
+        }
+    }
+
+
+
+    /**
+     * Measures the bytes allocated by the current thread, where the JVM
+     * supports it. Other threads, such as those running a parallel stream for
+     * it, aren't included.
+     */
+    private static final class AllocationCounter {
+
+        private final com.sun.management.ThreadMXBean threads;
+
+        private final long start;
+
+
+
+        AllocationCounter() {
+            threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t &&
+                      t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled() ? t : null;
+            start = current();
+        }
+
+
+
+        private long current() {
+            return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+
+
+
+        /**
+         * @return The bytes allocated since this counter was created, or -1 if
+         *         they cannot be measured.
+         */
+        long since() {
+            return threads == null ? -1 : current() - start;
+        }
+    }
+
+
+
+    /**
+     * The command line options, see {@link Runner}.
+     */
+    record Options(List<Integer> days, int warmup, int runs, int parallelism) {
+
+        /**
+         * @param args The command line arguments.
+         * @return The options, with defaults for any not given.
+         * @throws IllegalArgumentException If an option is unknown, missing its
+         *             value, or out of range.
+         */
+        static Options parse(String[] args) {
+            List<Integer> days = IntStream.rangeClosed(1, LAST_DAY).boxed().toList();
+            int warmup = 0;
+            int runs = 1;
+            int parallelism = 1;
+
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException("Missing a value for " + args[i]);
+                switch (args[i]) {
+                    case "--days" -> days = parseDays(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--runs" -> runs = Integer.parseInt(args[++i]);
+                    case "--parallel" -> parallelism = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+
+            if (warmup < 0 || runs < 1)
+                throw new IllegalArgumentException("Need at least one timed run, and no negative warm-ups.");
+            if (parallelism < 1)
+                throw new IllegalArgumentException("Need to run at least one day at a time.");
+
+            return new Options(days, warmup, runs, parallelism);
+        }
+
+
+
+        /**
+         * @param days A comma separated list of days, or ranges of days such as
+         *            {@code 3-7}.
+         * @return The days, in order.
+         */
+        private static List<Integer> parseDays(String days) {
+            var parsed = new TreeSet<Integer>();
+            Arrays.stream(days.split(","))
+                  .map(String::trim)
+                  .forEach(d -> {
+                      var range = d.split("-");
+                      int from = Integer.parseInt(range[0]);
+                      int to = Integer.parseInt(range[range.length - 1]);
+                      IntStream.rangeClosed(from, to).forEach(parsed::add);
+                  });
+            return new ArrayList<>(parsed);
+        }
+    }
+}
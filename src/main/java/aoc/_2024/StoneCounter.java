@@ -0,0 +1,350 @@
+package aoc._2024;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.LongBinaryOperator;
+import java.util.stream.IntStream;
+
+import aoc.LongLongMap;
+
+/**
+ * Counts the stones from Day 11 after any number of blinks.
+ * <p>
+ * Stones never affect each other and their order doesn't matter to the count,
+ * so the arrangement is held as the number of stones with each value. Each
+ * blink turns that into the counts for the next generation, which only grow
+ * with the number of distinct values, not the number of stones. The values
+ * quickly settle into a closed set of a few thousand, so memory stays bounded
+ * and each blink takes about the same time however many blinks are asked for.
+ * <p>
+ * The number of stones overflows a long after roughly 150 blinks, so
+ * {@link #count(int)} fails rather than wrap, and {@link #count(int, long)}
+ * counts modulo a given value for longer runs.
+ * <p>
+ * When there are many distinct values, {@link #countParallel(int, int)} splits
+ * each generation into shards by value and transforms them as parallel
+ * streams, so on the pool of the calling task if there is one, otherwise the
+ * common pool.
+ * Every worker appends what its shard produces to its own outbox, chained by
+ * destination shard, then every destination shard follows its chain through
+ * each outbox into its own map. Each map and outbox only ever has one writer,
+ * so nothing is locked or contended, and the buffers only grow with the
+ * number of stones produced, not with the square of the number of shards.
+ */
+public final class StoneCounter {
+
+    /**
+     * 10<sup>i</sup> for every power of ten which fits in a long.
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    /**
+     * The most shards a generation can be split into. A few per core keeps the
+     * workers busy when the shards are uneven, and more only add overhead.
+     */
+    public static final int MAX_SHARDS = 16 * Runtime.getRuntime().availableProcessors();
+
+    private final LongLongMap initial;
+
+    private int distinctValues;
+
+
+
+    /**
+     * @param stones The numbers on the stones before blinking.
+     */
+    public StoneCounter(Collection<Long> stones) {
+        this.initial = new LongLongMap(stones.size());
+        stones.forEach(s -> initial.merge(s, 1, Long::sum));
+    }
+
+
+
+    /**
+     * @param blinks The number of times to blink.
+     * @return The number of stones after blinking.
+     * @throws ArithmeticException If the number of stones, or the number on
+     *             any stone, doesn't fit in a long.
+     */
+    public long count(int blinks) {
+        return count(blinks, Math::addExact);
+    }
+
+
+
+    /**
+     * @param blinks The number of times to blink.
+     * @param modulus The value to count modulo, which must be positive and
+     *            at most 2<sup>62</sup> so that sums don't overflow.
+     * @return The number of stones after blinking, modulo the given value.
+     * @throws ArithmeticException If the number on any stone doesn't fit in a
+     *             long.
+     */
+    public long count(int blinks, long modulus) {
+        if (modulus <= 0 || modulus > 1L << 62)
+            throw new IllegalArgumentException("Modulus out of range: " + modulus);
+
+        return count(blinks, (x, y) -> (x + y) % modulus) % modulus;
+    }
+
+
+
+    /**
+     * Count as {@link #count(int)} does, transforming each generation in
+     * shards in parallel, in the calling task's pool or the common pool.
+     * 
+     * @param blinks The number of times to blink.
+     * @param shards The number of shards to split each generation into,
+     *            rounded up to a power of two.
+     * @return The number of stones after blinking.
+     * @throws ArithmeticException If the number of stones, or the number on
+     *             any stone, doesn't fit in a long.
+     */
+    public long countParallel(int blinks, int shards) {
+        return countSharded(blinks, shards, Math::addExact);
+    }
+
+
+
+    /**
+     * Count as {@link #count(int, long)} does, transforming each generation
+     * in shards in parallel, in the calling task's pool or the common pool.
+     * 
+     * @param blinks The number of times to blink.
+     * @param shards The number of shards to split each generation into,
+     *            rounded up to a power of two.
+     * @param modulus The value to count modulo, which must be positive and
+     *            at most 2<sup>62</sup> so that sums don't overflow.
+     * @return The number of stones after blinking, modulo the given value.
+     * @throws ArithmeticException If the number on any stone doesn't fit in a
+     *             long.
+     */
+    public long countParallel(int blinks, int shards, long modulus) {
+        if (modulus <= 0 || modulus > 1L << 62)
+            throw new IllegalArgumentException("Modulus out of range: " + modulus);
+
+        return countSharded(blinks, shards, (x, y) -> (x + y) % modulus) % modulus;
+    }
+
+
+
+    /**
+     * @return The number of distinct values on the stones after the most
+     *         recent count.
+     */
+    public int distinctValues() {
+        return distinctValues;
+    }
+
+
+
+    private long count(int blinks, LongBinaryOperator add) {
+        var current = new LongLongMap(Math.max(initial.size(), 4096));
+        var next = new LongLongMap(Math.max(initial.size(), 4096));
+        initial.forEach(current::put);
+
+        for (int i = 0; i < blinks; i++) {
+            var target = next;
+            current.forEach((stone, count) -> {
+                if (stone == 0) {
+                    target.merge(1, count, add);
+                    return;
+                }
+                int digits = digits(stone);
+                if ((digits & 1) == 0) {
+                    long half = powerOfTen(digits / 2);
+                    target.merge(stone / half, count, add);
+                    target.merge(stone % half, count, add);
+                } else {
+                    target.merge(Math.multiplyExact(stone, 2024), count, add);
+                }
+            });
+
+            // Swap the generations, reusing the old one's table
+            current.clear();
+            next = current;
+            current = target;
+        }
+
+        distinctValues = current.size();
+        long[] total = new long[1];
+        current.forEach((stone, count) -> total[0] = add.applyAsLong(total[0], count));
+        return total[0];
+    }
+
+
+
+    private long countSharded(int blinks, int shards, LongBinaryOperator add) {
+        if (shards < 1 || shards > MAX_SHARDS)
+            throw new IllegalArgumentException("Shards out of range: " + shards);
+
+        int bits = 32 - Integer.numberOfLeadingZeros(shards - 1);
+        int count = 1 << bits;
+
+        var first = new LongLongMap[count];
+        var next = new LongLongMap[count];
+        var outboxes = new Outbox[count];
+        for (int i = 0; i < count; i++) {
+            first[i] = new LongLongMap();
+            next[i] = new LongLongMap();
+            outboxes[i] = new Outbox(count);
+        }
+        initial.forEach((stone, n) -> first[shard(stone, bits)].put(stone, n));
+
+        var current = first;
+        for (int i = 0; i < blinks; i++) {
+            var source = current;
+            var target = next;
+
+            // Each shard sends the stones it becomes, addressed to the shards which own them
+            IntStream.range(0, count).parallel().forEach(from -> {
+                var sending = outboxes[from];
+                sending.clear();
+                source[from].forEach((stone, n) -> {
+                    if (stone == 0) {
+                        sending.add(shard(1, bits), 1, n);
+                        return;
+                    }
+                    int digits = digits(stone);
+                    if ((digits & 1) == 0) {
+                        long half = powerOfTen(digits / 2);
+                        sending.add(shard(stone / half, bits), stone / half, n);
+                        sending.add(shard(stone % half, bits), stone % half, n);
+                    } else {
+                        long value = Math.multiplyExact(stone, 2024);
+                        sending.add(shard(value, bits), value, n);
+                    }
+                });
+                source[from].clear();
+            });
+
+            // Then each shard gathers everything sent to it
+            IntStream.range(0, count).parallel().forEach(to -> {
+                for (var outbox : outboxes)
+                    outbox.sendTo(to, target[to], add);
+            });
+
+            next = current;
+            current = target;
+        }
+
+        distinctValues = Arrays.stream(current).mapToInt(LongLongMap::size).sum();
+        long total = 0;
+        for (var shard : current) {
+            long[] sum = { total };
+            shard.forEach((stone, n) -> sum[0] = add.applyAsLong(sum[0], n));
+            total = sum[0];
+        }
+        return total;
+    }
+
+
+
+    /**
+     * @param value A stone's value.
+     * @param bits The number of bits in the shard index.
+     * @return The shard which owns the value.
+     */
+    private static int shard(long value, int bits) {
+        // Use the top bits of a different mix to the maps', so each shard's table still spreads evenly
+        return bits == 0 ? 0 : (int) ((value * 0xBF58_476D_1CE4_E5B9L) >>> (64 - bits));
+    }
+
+
+
+    /**
+     * @param value A non-negative value.
+     * @return The number of decimal digits in the value, with 0 having one.
+     */
+    static int digits(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits])
+            digits++;
+        return digits;
+    }
+
+
+
+    /**
+     * @param exponent A power of ten, from 0 to 18.
+     * @return 10 to that power.
+     */
+    static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+
+
+    /**
+     * The stones one shard sends to the others in a generation, as parallel
+     * arrays of values and counts in the order they were added, with the
+     * entries for each destination shard chained together from the last one.
+     * The arrays are kept and reused between generations.
+     */
+    private static final class Outbox {
+
+        private static final int END = -1;
+
+        /** The most recent entry for each destination, or {@link #END}. */
+        private final int[] heads;
+
+        private long[] values = new long[16];
+
+        private long[] counts = new long[16];
+
+        /** The previous entry for the same destination, or {@link #END}. */
+        private int[] links = new int[16];
+
+        private int size;
+
+
+
+        /**
+         * @param shards The number of destination shards.
+         */
+        Outbox(int shards) {
+            heads = new int[shards];
+            Arrays.fill(heads, END);
+        }
+
+
+
+        void add(int to, long value, long count) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+                links = Arrays.copyOf(links, size * 2);
+            }
+            values[size] = value;
+            counts[size] = count;
+            links[size] = heads[to];
+            heads[to] = size++;
+        }
+
+
+
+        /**
+         * Add everything in the outbox for one destination to its map.
+         */
+        void sendTo(int to, LongLongMap map, LongBinaryOperator add) {
+            for (int i = heads[to]; i != END; i = links[i])
+                map.merge(values[i], counts[i], add);
+        }
+
+
+
+        /**
+         * Empty the outbox, once every destination has been sent its stones.
+         */
+        void clear() {
+            Arrays.fill(heads, END);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package aoc._2024;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Counts the ways the towels from Day 19 can be lined up to make a design.
+ * <p>
+ * The towels are built once into a trie held in flat arrays, with the stripe
+ * colours numbered densely so that each node's children take a few ints. A
+ * design is then counted left to right with one {@code long} per position,
+ * holding the number of ways to make the design up to there. From every
+ * position that can be reached, the design is walked down the trie, and each
+ * towel which ends along the way adds those ways to the position after it.
+ * No walk goes deeper than the longest towel, so a design costs at most its
+ * length times that, and nothing is allocated once the table is big enough.
+ * <p>
+ * The table is kept between designs, so a counter must only be used by one
+ * thread at a time.
+ */
+public final class TowelCounter {
+
+    private static final int NONE = -1;
+
+    /** The number of each stripe colour, or {@link #NONE}, by character. */
+    private final int[] symbols = new int[128];
+
+    private final int alphabet;
+
+    /** The child of each node for each colour, or {@link #NONE}. */
+    private int[] children;
+
+    /** Whether a towel ends at each node. */
+    private boolean[] terminal;
+
+    private int nodes;
+
+    /** The number of ways to reach each position of the current design. */
+    private long[] ways = new long[64];
+
+
+
+    /**
+     * @param towels The stripe patterns of the towels available, each made of
+     *            ASCII characters.
+     * @throws IllegalArgumentException If a towel is empty or not ASCII.
+     */
+    public TowelCounter(Collection<String> towels) {
+        Arrays.fill(symbols, NONE);
+        int colours = 0;
+        int size = 1;
+        for (var towel : towels) {
+            if (towel.isEmpty())
+                throw new IllegalArgumentException("Towels can't be empty.");
+            size += towel.length();
+            for (int i = 0; i < towel.length(); i++) {
+                char c = towel.charAt(i);
+                if (c >= symbols.length)
+                    throw new IllegalArgumentException("Unexpected stripe " + c + " in " + towel);
+                if (symbols[c] == NONE)
+                    symbols[c] = colours++;
+            }
+        }
+        this.alphabet = Math.max(colours, 1);
+
+        // Enough nodes for towels sharing no prefixes, trimmed once built
+        this.children = new int[size * alphabet];
+        this.terminal = new boolean[size];
+        Arrays.fill(children, NONE);
+        nodes = 1;
+        towels.forEach(this::insert);
+        children = Arrays.copyOf(children, nodes * alphabet);
+        terminal = Arrays.copyOf(terminal, nodes);
+    }
+
+
+
+    /**
+     * @param design The stripes of a design.
+     * @return {@code true} if the towels can be lined up to make the design.
+     */
+    public boolean canBeMade(CharSequence design) {
+        return fill(design, false) != 0;
+    }
+
+
+
+    /**
+     * @param design The stripes of a design.
+     * @return The number of different ways the towels can be lined up to make
+     *         the design.
+     * @throws ArithmeticException If the number of ways doesn't fit in a long.
+     */
+    public long count(CharSequence design) {
+        return fill(design, true);
+    }
+
+
+
+    /**
+     * @return The number of nodes in the trie, including the root.
+     */
+    public int nodes() {
+        return nodes;
+    }
+
+
+
+    private void insert(String towel) {
+        int node = 0;
+        for (int i = 0; i < towel.length(); i++) {
+            int edge = node * alphabet + symbols[towel.charAt(i)];
+            if (children[edge] == NONE)
+                children[edge] = nodes++;
+            node = children[edge];
+        }
+        terminal[node] = true;
+    }
+
+
+
+    /**
+     * Run the table over a design.
+     *
+     * @param design The stripes of a design.
+     * @param counting {@code true} to count every way, or {@code false} to
+     *            only note which positions can be reached, as 1 or 0.
+     * @return The number of ways to make the whole design, or whether it can
+     *         be made at all, as 1 or 0.
+     */
+    private long fill(CharSequence design, boolean counting) {
+        int length = design.length();
+        if (ways.length <= length)
+            ways = new long[Math.max(length + 1, ways.length * 2)];
+        Arrays.fill(ways, 0, length + 1, 0);
+        ways[0] = 1;
+
+        for (int start = 0; start < length; start++) {
+            long reaching = ways[start];
+            if (reaching == 0)
+                continue;
+
+            int node = 0;
+            for (int i = start; i < length; i++) {
+                char c = design.charAt(i);
+                int symbol = c < symbols.length ? symbols[c] : NONE;
+                if (symbol == NONE)
+                    break;
+                node = children[node * alphabet + symbol];
+                if (node == NONE)
+                    break;
+                if (terminal[node])
+                    ways[i + 1] = counting ? Math.addExact(ways[i + 1], reaching) : 1;
+            }
+        }
+        return ways[length];
+    }
+}
@@ -0,0 +1,48 @@
+package aoc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+class ByteCursorTest {
+
+    /**
+     * The byte cursor reads numbers and fields straight from the bytes, and
+     * refuses numbers which don't fit rather than wrapping them.
+     */
+    @Test
+    void testByteCursor() {
+        var bytes = "190: 10 -19\nr, wr, b\n9223372036854775808 -9223372036854775808\n".getBytes(StandardCharsets.US_ASCII);
+        var cursor = new ByteCursor(ByteBuffer.wrap(bytes));
+
+        assertEquals(190, cursor.nextInt());
+        assertEquals(10, cursor.nextLong());
+        assertEquals(-19, cursor.nextLong());
+        assertFalse(cursor.hasNextNumber());
+        cursor.nextLine();
+
+        assertEquals(1, cursor.nextField(','));
+        assertTrue(cursor.fieldEquals("r"));
+        assertEquals(2, cursor.nextField(','));
+        assertEquals('w', cursor.fieldByte(0));
+        assertTrue(cursor.fieldEquals("wr"));
+        assertEquals(1, cursor.nextField(','));
+        assertFalse(cursor.fieldEquals("wr"));
+        assertThrows(NoSuchElementException.class, () -> cursor.nextField(','));
+        cursor.nextLine();
+
+        assertThrows(ArithmeticException.class, cursor::nextLong);
+        assertEquals(Long.MIN_VALUE, cursor.nextLong());
+        cursor.nextLine();
+        assertFalse(cursor.hasNextLine());
+
+        assertEquals(0, FileUtils.mapFile("testInput/NoSuchDay.txt").remaining());
+    }
+}
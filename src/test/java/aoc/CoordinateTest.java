@@ -0,0 +1,151 @@
+package aoc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CoordinateTest {
+
+    private static final String LOW_PROPERTY = "aoc.Coordinate.cache.low";
+
+    private static final String HIGH_PROPERTY = "aoc.Coordinate.cache.high";
+
+
+
+    /**
+     * By default, coordinates from -1 to 255 in both directions are only
+     * created once, and anything outside that window is created afresh.
+     */
+    @Test
+    void testCache() {
+        assertSame(Coordinate.of(-1, -1), Coordinate.of(-1, -1));
+        assertSame(Coordinate.of(255, 255), Coordinate.of(255, 255));
+        assertSame(Coordinate.of(3, 200), Coordinate.of(3, 200));
+
+        assertNotSame(Coordinate.of(-2, 0), Coordinate.of(-2, 0));
+        assertNotSame(Coordinate.of(0, 256), Coordinate.of(0, 256));
+        assertNotSame(Coordinate.of(1_000_000, 5), Coordinate.of(1_000_000, 5));
+        assertEquals(Coordinate.of(0, 256), Coordinate.of(0, 256));
+        assertEquals(new Coordinate(3, 200), Coordinate.of(3, 200));
+    }
+
+
+
+    /**
+     * The window is read from system properties when the cache is first used,
+     * so a fresh copy of the class picks up new bounds. A window whose high
+     * bound is below its low bound caches nothing.
+     */
+    @Test
+    void testCacheBounds() throws Exception {
+        try (var loader = freshLoader()) {
+            var of = withWindow(loader, "-10", "10");
+            assertSame(of.invoke(null, -10, 10), of.invoke(null, -10, 10));
+            assertSame(of.invoke(null, 0, 0), of.invoke(null, 0, 0));
+            assertNotSame(of.invoke(null, -11, 0), of.invoke(null, -11, 0));
+            assertNotSame(of.invoke(null, 0, 11), of.invoke(null, 0, 11));
+            assertNotSame(of.invoke(null, 100, 100), of.invoke(null, 100, 100));
+        }
+
+        try (var loader = freshLoader()) {
+            var of = withWindow(loader, "5", "4");
+            assertNotSame(of.invoke(null, 5, 5), of.invoke(null, 5, 5));
+            assertEquals(of.invoke(null, 5, 5), of.invoke(null, 5, 5));
+        }
+    }
+
+
+
+    /**
+     * Every adjacent coordinate is visited, in the clockwise order of
+     * {@link Direction} starting from the right, even those off the edge of
+     * any map, which is left to callers such as
+     * {@link Grid#forEachNeighbour(int, java.util.function.IntConsumer)} to
+     * clip. The row and column form and the {@link Coordinate} form agree.
+     */
+    @Test
+    void testForEachAdjacent() {
+        var corner = Coordinate.of(0, 0);
+        assertEquals(List.of("0,1", "1,1", "1,0", "1,-1", "0,-1", "-1,-1", "-1,0", "-1,1"), adjacent(corner, false));
+        assertEquals(List.of("0,1", "1,0", "0,-1", "-1,0"), adjacent(corner, true));
+
+        var middle = Coordinate.of(5, 7);
+        List<Coordinate> all = new ArrayList<>();
+        middle.forEachAdjacent(c -> all.add(c));
+        assertEquals(middle.findAdjacent(), Set.copyOf(all));
+        assertEquals(8, all.size());
+
+        List<Coordinate> orthogonal = new ArrayList<>();
+        middle.forEachOrthogonalAdjacent(c -> orthogonal.add(c));
+        assertEquals(middle.findOrthogonalAdjacent(), Set.copyOf(orthogonal));
+        for (int i = 0; i < Coordinate.ORTHOGONAL_ADJACENT; i++)
+            assertEquals(orthogonal.get(i), middle.orthogonalAdjacent(i));
+    }
+
+
+
+    /**
+     * @return The rows and columns visited next to the coordinate.
+     */
+    private static List<String> adjacent(Coordinate coordinate, boolean orthogonal) {
+        List<String> visited = new ArrayList<>();
+        if (orthogonal)
+            coordinate.forEachOrthogonalAdjacent((row, column) -> visited.add(row + "," + column));
+        else
+            coordinate.forEachAdjacent((row, column) -> visited.add(row + "," + column));
+        return visited;
+    }
+
+
+
+    /**
+     * @return A loader with its own copy of the classes in this package.
+     */
+    private static URLClassLoader freshLoader() {
+        URL classes = Coordinate.class.getProtectionDomain().getCodeSource().getLocation();
+        return new URLClassLoader(new URL[] { classes }, ClassLoader.getPlatformClassLoader());
+    }
+
+
+
+    /**
+     * Initialise the loader's copy of {@link Coordinate} with the cache
+     * window set by the system properties, putting them back afterwards.
+     *
+     * @return The copy's {@link Coordinate#of(int, int)}.
+     */
+    private static Method withWindow(ClassLoader loader, String low, String high) throws Exception {
+        String oldLow = System.getProperty(LOW_PROPERTY);
+        String oldHigh = System.getProperty(HIGH_PROPERTY);
+        try {
+            System.setProperty(LOW_PROPERTY, low);
+            System.setProperty(HIGH_PROPERTY, high);
+            var coordinate = Class.forName(Coordinate.class.getName(), true, loader);
+            var of = coordinate.getMethod("of", int.class, int.class);
+            // The cache is only built on first use
+            of.invoke(null, 0, 0);
+            return of;
+        } finally {
+            restore(LOW_PROPERTY, oldLow);
+            restore(HIGH_PROPERTY, oldHigh);
+        }
+    }
+
+
+
+    private static void restore(String property, String value) {
+        if (value == null)
+            System.clearProperty(property);
+        else
+            System.setProperty(property, value);
+    }
+}
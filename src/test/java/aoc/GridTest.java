@@ -0,0 +1,153 @@
+package aoc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class GridTest {
+
+    private static final List<String> LINES = List.of("#..", ".a", "..b#");
+
+
+
+    /**
+     * Rows and columns start at 1, short lines are padded with the blank
+     * space, and each cell can be reached by index too.
+     */
+    @Test
+    void testOf() {
+        var grid = Grid.of(LINES);
+
+        assertEquals(3, grid.getRows());
+        assertEquals(4, grid.getColumns());
+        assertEquals(12, grid.size());
+        assertEquals('#', grid.get(1, 1));
+        assertEquals('a', grid.get(Coordinate.of(2, 2)));
+        assertEquals('.', grid.get(2, 4));
+        assertEquals('.', grid.get(0, 1));
+        assertEquals('.', grid.get(3, 5));
+        assertEquals(-1, grid.indexOf(4, 1));
+
+        int index = grid.indexOf(3, 3);
+        assertEquals(10, index);
+        assertEquals('b', grid.get(index));
+        assertEquals(3, grid.rowOf(index));
+        assertEquals(3, grid.columnOf(index));
+        assertEquals(Coordinate.of(3, 3), grid.coordinateOf(index));
+        assertEquals(index, grid.indexOf('b'));
+        assertEquals(-1, grid.indexOf('z'));
+        assertEquals("#...\n.a..\n..b#\n", grid.toString());
+    }
+
+
+
+    /**
+     * Setting a cell returns what it held, copies don't share cells, and
+     * setting outside the grid is refused.
+     */
+    @Test
+    void testSet() {
+        var grid = Grid.empty(2, 3, ' ');
+        var copy = grid.copy();
+
+        assertEquals(' ', grid.set(2, 3, 'x'));
+        assertEquals('x', grid.set(grid.indexOf(2, 3), 'y'));
+        assertEquals('y', grid.get(2, 3));
+        assertEquals(' ', copy.get(2, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> grid.set(3, 1, 'x'));
+    }
+
+
+
+    /**
+     * Neighbours outside the grid are skipped, so a corner has three and an
+     * edge five, or two and three orthogonally.
+     */
+    @Test
+    void testNeighbours() {
+        var grid = Grid.of(LINES);
+
+        assertEquals(List.of(1, 4, 5), neighbours(grid, grid.indexOf(1, 1), false));
+        assertEquals(List.of(1, 4), neighbours(grid, grid.indexOf(1, 1), true));
+        assertEquals(List.of(0, 1, 2, 4, 6, 8, 9, 10), neighbours(grid, grid.indexOf(2, 2), false));
+        assertEquals(List.of(1, 4, 6, 9), neighbours(grid, grid.indexOf(2, 2), true));
+        assertEquals(List.of(3, 6, 11), neighbours(grid, grid.indexOf(2, 4), true));
+        assertEquals(List.of(6, 7, 10), neighbours(grid, grid.indexOf(3, 4), false));
+
+        assertEquals(grid.indexOf(1, 2), grid.neighbour(grid.indexOf(2, 2), Direction.UP));
+        assertEquals(grid.indexOf(3, 1), grid.neighbour(grid.indexOf(2, 2), Direction.DOWN_LEFT));
+        assertEquals(-1, grid.neighbour(grid.indexOf(1, 1), Direction.LEFT));
+    }
+
+
+
+    /**
+     * The map view holds the same entries as
+     * {@link Coordinate#mapCoordinates(List)}, and changes through it write
+     * through to the grid.
+     */
+    @Test
+    void testMapView() {
+        var grid = Grid.of(LINES);
+        var map = grid.asMap();
+
+        assertEquals(Coordinate.mapCoordinates(LINES), new HashMap<>(map));
+        assertEquals(4, map.size());
+        assertEquals(Character.valueOf('a'), map.get(Coordinate.of(2, 2)));
+        assertNull(map.get(Coordinate.of(1, 2)));
+        assertNull(map.get(Coordinate.of(9, 9)));
+        assertNull(map.get("not a coordinate"));
+        assertFalse(map.containsKey(Coordinate.of(1, 2)));
+
+        assertNull(map.put(Coordinate.of(1, 2), 'c'));
+        assertEquals('c', grid.get(1, 2));
+        assertEquals(Character.valueOf('c'), map.put(Coordinate.of(1, 2), 'd'));
+        assertEquals(5, map.size());
+
+        assertEquals(Character.valueOf('d'), map.remove(Coordinate.of(1, 2)));
+        assertNull(map.remove(Coordinate.of(1, 2)));
+        assertEquals('.', grid.get(1, 2));
+        assertEquals(4, map.size());
+
+        map.entrySet().removeIf(e -> e.getValue() == '#');
+        assertEquals(2, map.size());
+        assertTrue(map.containsKey(Coordinate.of(3, 3)));
+        assertEquals('.', grid.get(1, 1));
+    }
+
+
+
+    /**
+     * Putting outside the grid, or putting a {@code null} character, is
+     * refused without changing the grid.
+     */
+    @Test
+    void testMapViewRejects() {
+        var grid = Grid.of(LINES);
+        var map = grid.asMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(Coordinate.of(4, 1), 'x'));
+        assertThrows(NullPointerException.class, () -> map.put(Coordinate.of(2, 2), null));
+        assertEquals('a', grid.get(2, 2));
+        assertEquals(4, map.size());
+    }
+
+
+
+    private static List<Integer> neighbours(Grid grid, int index, boolean orthogonal) {
+        var found = new ArrayList<Integer>();
+        if (orthogonal)
+            grid.forEachOrthogonalNeighbour(index, found::add);
+        else
+            grid.forEachNeighbour(index, found::add);
+        return found.stream().sorted().toList();
+    }
+}
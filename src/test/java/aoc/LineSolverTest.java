@@ -0,0 +1,53 @@
+package aoc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class LineSolverTest {
+
+    /**
+     * The amounts from each line are summed, and lines are handed over in
+     * order on one thread even from a parallel stream, so a solver can carry
+     * state from line to line.
+     */
+    @Test
+    void testSolve() {
+        LineSolver length = String::length;
+        assertEquals(6, length.solve(Stream.of("a", "bb", "ccc")));
+        assertEquals(0, length.solve(Stream.empty()));
+
+        List<String> seen = new ArrayList<>();
+        var threads = new ArrayList<Thread>();
+        LineSolver previous = line -> {
+            threads.add(Thread.currentThread());
+            long carried = seen.isEmpty() ? 0 : Long.parseLong(seen.getLast());
+            seen.add(line);
+            return carried;
+        };
+        var lines = IntStream.range(0, 10_000).mapToObj(Integer::toString).toList();
+
+        assertEquals(10_000L * 9_999 / 2 - 9_999, previous.solve(lines.parallelStream()));
+        assertEquals(lines, seen);
+        assertEquals(1, threads.stream().distinct().count());
+    }
+
+
+
+    /**
+     * Solving a file streams its lines from the classpath, and a missing file
+     * has no lines.
+     */
+    @Test
+    void testSolveFile() {
+        LineSolver levels = line -> line.split(" ").length;
+
+        assertEquals(30, levels.solve("testInput/Day2.txt"));
+        assertEquals(0, levels.solve("testInput/NoSuchDay.txt"));
+    }
+}
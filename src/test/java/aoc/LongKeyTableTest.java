@@ -0,0 +1,64 @@
+package aoc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+class LongKeyTableTest {
+
+    /**
+     * The primitive maps share one key table. Starting it tiny makes it grow
+     * many times, and keys which only differ in their upper bits, like packed
+     * coordinates, pile into long probe runs which removals have to repair.
+     */
+    @Test
+    void testLongMaps() {
+        var longs = new LongLongMap(1);
+        var ints = new LongIntMap(1);
+        var set = new LongSet(1);
+        var expected = new HashMap<Long, Long>();
+        for (int i = 0; i < 2000; i++) {
+            long key = (long) (i % 500) << 32;
+            longs.merge(key, i, Long::sum);
+            ints.merge(key, 1, Integer::sum);
+            set.add(key);
+            expected.merge(key, (long) i, Long::sum);
+        }
+        assertEquals(500, longs.size());
+        assertEquals(500, ints.size());
+        assertEquals(500, set.size());
+        assertTrue(longs.containsKey(0));
+        assertEquals(4, ints.getOrDefault(0, -1));
+
+        // Removing keys shifts later ones in their runs back to fill the gaps
+        for (long key = 0; key < 500; key += 3) {
+            assertTrue(longs.remove(key << 32));
+            assertTrue(ints.remove(key << 32));
+            assertTrue(set.remove(key << 32));
+            assertFalse(set.remove(key << 32));
+            expected.remove(key << 32);
+        }
+        assertEquals(expected.size(), longs.size());
+        assertEquals(expected.size(), ints.size());
+        assertEquals(expected.size(), set.size());
+        for (long key = 0; key < 500; key++) {
+            long packed = key << 32;
+            assertEquals(expected.getOrDefault(packed, -1L).longValue(), longs.getOrDefault(packed, -1));
+            assertEquals(expected.containsKey(packed) ? 4 : -1, ints.getOrDefault(packed, -1));
+            assertEquals(expected.containsKey(packed), set.contains(packed));
+        }
+
+        var seen = new HashMap<Long, Long>();
+        longs.forEach(seen::put);
+        assertEquals(expected, seen);
+        assertEquals(expected.keySet().stream().sorted().toList(), ints.keys().sorted().boxed().toList());
+
+        longs.clear();
+        assertTrue(longs.isEmpty());
+        assertEquals(-1, longs.getOrDefault(1L << 32, -1));
+    }
+}
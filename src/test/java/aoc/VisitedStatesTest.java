@@ -0,0 +1,89 @@
+package aoc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class VisitedStatesTest {
+
+    /**
+     * States are packed as {@code (row * columns + column) * directions +
+     * direction}, and each is only added once.
+     */
+    @Test
+    void testAdd() {
+        var states = new VisitedStates(3, 5, 4);
+
+        assertEquals(((2 * 5) + 4) * 4 + 3, states.index(2, 4, 3));
+        assertTrue(states.add(2, 4, 3));
+        assertFalse(states.add(states.index(2, 4, 3)));
+        assertTrue(states.add(0, 0, 0));
+        assertTrue(states.contains(states.index(2, 4, 3)));
+        assertFalse(states.contains(states.index(2, 4, 2)));
+        assertEquals(2, states.size());
+        assertEquals(List.of(0, states.index(2, 4, 3)), states.indices().boxed().toList());
+    }
+
+
+
+    /**
+     * After clearing, states from before read as absent, including those
+     * sharing a word with states added since, and can be added again.
+     */
+    @Test
+    void testReuseAfterClear() {
+        var states = new VisitedStates(10, 10, 4);
+        for (int i = 0; i < 400; i += 3)
+            states.add(i);
+
+        for (int walk = 0; walk < 5; walk++) {
+            states.clear();
+            assertEquals(0, states.size());
+            assertEquals(0, states.indices().count());
+
+            // One state in each word which held states before
+            for (int i = walk; i < 400; i += 64) {
+                assertFalse(states.contains(i + 3));
+                assertTrue(states.add(i));
+                assertFalse(states.add(i));
+            }
+            for (int i = 0; i < 400; i++)
+                assertEquals((i - walk) % 64 == 0 && i >= walk, states.contains(i));
+        }
+    }
+
+
+
+    /**
+     * The epoch wraps around past {@link Integer#MAX_VALUE}, and skips 0, which
+     * words never written are stamped with, by wiping the stamps once.
+     */
+    @Test
+    void testEpochOverflow() {
+        var states = new VisitedStates(4, 4, 4, Integer.MAX_VALUE);
+        states.add(5);
+        states.clear();
+        assertFalse(states.contains(5));
+        assertTrue(states.add(6));
+
+        states = new VisitedStates(4, 4, 4, -1);
+        states.add(5);
+        states.add(40);
+        states.clear();
+        for (int i = 0; i < 64; i++)
+            assertFalse(states.contains(i));
+        assertTrue(states.add(5));
+        assertEquals(1, states.size());
+
+        // Words stamped before the wipe must stay empty in the epochs after it
+        states.clear();
+        assertFalse(states.contains(5));
+        assertFalse(states.contains(40));
+        assertTrue(states.add(40));
+        assertEquals(List.of(40), states.indices().boxed().toList());
+    }
+}
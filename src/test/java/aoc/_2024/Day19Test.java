@@ -0,0 +1,21 @@
+package aoc._2024;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class Day19Test {
+
+    /**
+     * With the example towels, 6 of the designs can be made, in 16 different
+     * ways in total.
+     */
+    @Test
+    void testTowelDesigns() {
+        var solution = new Day19.Solution();
+        var lines = solution.parse("testInput/Day19.txt");
+
+        assertEquals(6L, solution.part1(lines));
+        assertEquals(16L, solution.part2(lines));
+    }
+}
@@ -0,0 +1,301 @@
+package aoc._2024;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class Day24Test {
+
+    /**
+     * The larger example outputs 2024 on its z wires.
+     */
+    @Test
+    void testPart1() {
+        var solution = new Day24.Solution();
+
+        assertEquals(2024L, solution.part1(solution.parse("testInput/Day24.txt")));
+    }
+
+
+
+    /**
+     * A compiled circuit should give the same outputs as evaluating the gates
+     * one at a time as their inputs turn up, for random inputs, including on
+     * gates listed in any order.
+     */
+    @Test
+    void testCompiledMatchesNaive() {
+        var random = new Random(21);
+        var lines = adder(40, random);
+        var circuit = CompiledCircuit.compile(lines);
+
+        assertEquals(40, circuit.inputBits());
+        assertEquals(41, circuit.outputBits());
+        for (int trial = 0; trial < 50; trial++) {
+            long x = random.nextLong() & ((1L << 40) - 1);
+            long y = random.nextLong() & ((1L << 40) - 1);
+            assertEquals(naive(lines, x, y, 40), circuit.evaluate(x, y));
+            assertEquals(x + y, circuit.evaluate(x, y));
+        }
+    }
+
+
+
+    /**
+     * A correct adder never gets a sum wrong, 64 sums at a time, while one
+     * with the XOR and AND of a bit's inputs swapped is first wrong at that
+     * bit.
+     */
+    @Test
+    void testFirstAdderError() {
+        var random = new Random(22);
+        var circuit = CompiledCircuit.compile(adder(200, random));
+
+        assertEquals(-1, circuit.firstAdderError(random, 8));
+
+        var broken = swap(circuit, "s120", "a120");
+        int error = broken.firstAdderError(random, 8);
+        assertEquals(120, error);
+    }
+
+
+
+    /**
+     * The real input adds once its four pairs of wires are swapped back, which
+     * no pairing of the wires Day 24 used to give could manage.
+     */
+    @Test
+    void testRealInputRepair() {
+        var solution = new Day24.Solution();
+        var lines = solution.parse("input/Day24.txt");
+
+        assertEquals("cgq,fnr,kqk,nbc,svm,z15,z23,z39", solution.part2(lines));
+
+        var circuit = CompiledCircuit.compile(lines);
+        var random = new Random(24);
+        var swaps = AdderRepair.findSwaps(circuit, 4, random).orElseThrow();
+        assertEquals(-1, inject(circuit, swaps).firstAdderError(random, 16));
+
+        var old = List.of("z15", "z16", "z23", "z24", "nbc", "svm", "z39", "fnr");
+        assertFalse(anyPairingAdds(circuit, old, random));
+    }
+
+
+
+    /**
+     * Swapping the outputs of four pairs of gates in a generated adder, one of
+     * each kind of fault, should be undone exactly by the swap search.
+     */
+    @Test
+    void testFindSwaps() {
+        var random = new Random(23);
+        var circuit = CompiledCircuit.compile(adder(45, random));
+        var injected = List.of("s5", "a5", "z12", "c12", "z20", "b20", "z31", "a31");
+
+        assertEquals(sorted(injected), sorted(AdderRepair.findSwaps(inject(circuit, injected), 4, random).orElseThrow()));
+        assertEquals(List.of(), AdderRepair.findSwaps(circuit, 4, random).orElseThrow());
+        assertTrue(AdderRepair.findSwaps(inject(circuit, injected), 3, random).isEmpty());
+    }
+
+
+
+    /**
+     * The search only looks near the lowest wrong bit, so repairing a much
+     * wider adder should still be quick.
+     */
+    @Test
+    void testFindSwapsWideAdder() {
+        var random = new Random(2000);
+        var circuit = CompiledCircuit.compile(adder(2000, random));
+        var injected = List.of("s300", "a300", "z900", "c900", "z1500", "b1500", "z1990", "a1990");
+
+        assertEquals(sorted(injected), sorted(AdderRepair.findSwaps(inject(circuit, injected), 4, random).orElseThrow()));
+    }
+
+
+
+    /**
+     * Updating the lanes after flipping inputs, or trying a swap in place,
+     * should leave them as running the whole circuit would, and undoing a
+     * swap should put them back exactly. Swaps making a loop are refused just
+     * as {@link CompiledCircuit#swapOutputs(int, int)} refuses them.
+     */
+    @Test
+    void testUpdateMatchesEvaluate() {
+        var random = new Random(24);
+        var circuit = CompiledCircuit.compile(adder(40, random));
+        var updater = circuit.updater();
+        long[] lanes = new long[circuit.wireCount()];
+        for (int i = 0; i < circuit.inputBits(); i++) {
+            lanes[circuit.xWire(i)] = random.nextLong();
+            lanes[circuit.yWire(i)] = random.nextLong();
+        }
+        circuit.evaluate(lanes);
+
+        for (int trial = 0; trial < 2000; trial++) {
+            int bit = random.nextInt(circuit.inputBits());
+            int wire = random.nextBoolean() ? circuit.xWire(bit) : circuit.yWire(bit);
+            lanes[wire] ^= random.nextLong();
+            updater.update(lanes, wire);
+            long[] full = lanes.clone();
+            circuit.evaluate(full);
+            assertArrayEquals(full, lanes);
+
+            int gate1 = random.nextInt(circuit.gateCount());
+            int gate2 = random.nextInt(circuit.gateCount());
+            if (gate1 == gate2)
+                continue;
+            long[] before = lanes.clone();
+            var swapped = circuit.swapOutputs(gate1, gate2);
+            assertEquals(swapped != null, updater.updateSwapped(lanes, gate1, gate2));
+            if (swapped != null) {
+                full = before.clone();
+                swapped.evaluate(full);
+                assertArrayEquals(full, lanes);
+                updater.undo(lanes);
+            }
+            assertArrayEquals(before, lanes);
+        }
+    }
+
+
+
+    /**
+     * Build the gates of a ripple carry adder, with the internal wires given
+     * arbitrary names and the gates listed in a random order.
+     *
+     * @param bits The number of bits in each input.
+     * @param random Where to get the order of the gates.
+     * @return Lines such as {@code x00 AND y00 -> c00}.
+     */
+    static List<String> adder(int bits, Random random) {
+        List<String> lines = new ArrayList<>();
+        String carry = null;
+        for (int i = 0; i < bits; i++) {
+            String x = String.format("x%02d", i);
+            String y = String.format("y%02d", i);
+            String z = String.format("z%02d", i);
+            if (i == 0) {
+                carry = "c00";
+                lines.add(x + " XOR " + y + " -> " + z);
+                lines.add(y + " AND " + x + " -> " + carry);
+                continue;
+            }
+            String sum = "s" + i;
+            String both = "a" + i;
+            String carried = "b" + i;
+            String next = i == bits - 1 ? String.format("z%02d", bits) : "c" + i;
+            lines.add(x + " XOR " + y + " -> " + sum);
+            lines.add(x + " AND " + y + " -> " + both);
+            lines.add(sum + " XOR " + carry + " -> " + z);
+            lines.add(carry + " AND " + sum + " -> " + carried);
+            lines.add(both + " OR " + carried + " -> " + next);
+            carry = next;
+        }
+        Collections.shuffle(lines, random);
+        return lines;
+    }
+
+
+
+    /**
+     * Evaluate gates the way Day 24 first did, by passing over them until
+     * every gate's inputs have turned up.
+     */
+    private static long naive(List<String> lines, long x, long y, int bits) {
+        Map<String, Boolean> values = new HashMap<>();
+        for (int i = 0; i < bits; i++) {
+            values.put(String.format("x%02d", i), (x >>> i & 1) != 0);
+            values.put(String.format("y%02d", i), (y >>> i & 1) != 0);
+        }
+        List<String[]> waiting = new ArrayList<>(lines.stream().map(l -> l.split(" ")).toList());
+        while (!waiting.isEmpty()) {
+            var gate = waiting.removeFirst();
+            var a = values.get(gate[0]);
+            var b = values.get(gate[2]);
+            if (a == null || b == null) {
+                waiting.add(gate);
+                continue;
+            }
+            values.put(gate[4], switch (gate[1]) {
+                case "AND" -> a & b;
+                case "OR" -> a | b;
+                default -> a ^ b;
+            });
+        }
+
+        long z = 0;
+        for (int i = 0; values.containsKey(String.format("z%02d", i)); i++)
+            if (values.get(String.format("z%02d", i)))
+                z |= 1L << i;
+        return z;
+    }
+
+
+    /**
+     * @return A copy of the circuit with the outputs of the gates driving the
+     *         two wires swapped, or {@code null} if that makes a loop.
+     */
+    static CompiledCircuit swap(CompiledCircuit circuit, String wire1, String wire2) {
+        return circuit.swapOutputs(driver(circuit, wire1), driver(circuit, wire2));
+    }
+
+
+
+    private static int driver(CompiledCircuit circuit, String wire) {
+        int index = circuit.indexOf(wire);
+        for (int gate = 0; gate < circuit.gateCount(); gate++)
+            if (circuit.outputOf(gate) == index)
+                return gate;
+        throw new IllegalArgumentException("No gate drives " + wire);
+    }
+
+
+
+    /**
+     * @return {@code true} if some way of pairing up the wires and swapping
+     *         each pair makes the circuit add.
+     */
+    private static boolean anyPairingAdds(CompiledCircuit circuit, List<String> wires, Random random) {
+        if (circuit == null)
+            return false;
+        if (wires.isEmpty())
+            return circuit.firstAdderError(random, 4) < 0;
+
+        var first = wires.getFirst();
+        for (int i = 1; i < wires.size(); i++) {
+            List<String> rest = new ArrayList<>(wires.subList(1, wires.size()));
+            var partner = rest.remove(i - 1);
+            if (anyPairingAdds(swap(circuit, first, partner), rest, random))
+                return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * @return A copy of the circuit with each pair of wires in the list
+     *         swapped.
+     */
+    private static CompiledCircuit inject(CompiledCircuit circuit, List<String> pairs) {
+        for (int i = 0; i < pairs.size(); i += 2)
+            circuit = swap(circuit, pairs.get(i), pairs.get(i + 1));
+        return circuit;
+    }
+
+
+
+    private static List<String> sorted(List<String> wires) {
+        return wires.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,237 @@
+package aoc._2024;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import aoc.Coordinate;
+import aoc.Direction;
+import aoc.FileUtils;
+
+class GuardPatrolTest {
+
+    private static final int[] ROW_STEP = { -1, 0, 1, 0 };
+
+    private static final int[] COLUMN_STEP = { 0, 1, 0, -1 };
+
+    private static final String GUARDS = "^>v<";
+
+    /**
+     * How far apart obstructions are on the large maps, so that the guard
+     * gets some way before leaving.
+     */
+    private static final int SPARSE = 200;
+
+
+
+    /**
+     * In the example, there are 6 places an obstruction would trap the guard.
+     */
+    @Test
+    void testExample() {
+        var lines = FileUtils.readFile("testInput/Day6.txt");
+
+        assertEquals(41, patrol(lines).visitedCells());
+        assertEquals(6, patrol(lines).countLoops());
+        assertEquals(6, patrol(lines).countLoopsParallel());
+        assertEquals(6, bruteForceLoops(lines));
+    }
+
+
+
+    /**
+     * The jump table, with or without an extra obstruction, should land the
+     * guard where walking one step at a time would.
+     */
+    @Test
+    void testJumps() {
+        var random = new Random(6);
+        for (int trial = 0; trial < 50; trial++) {
+            var lines = randomMap(random, 3 + random.nextInt(10), 3 + random.nextInt(10), 6);
+            var patrol = patrol(lines);
+            if (patrol == null)
+                continue;
+
+            int rows = lines.size();
+            int columns = lines.getFirst().length();
+            for (int cell = 0; cell < rows * columns; cell++) {
+                if (blocked(lines, cell / columns, cell % columns, GuardPatrol.EXIT))
+                    continue;
+                for (int heading = 0; heading < 4; heading++) {
+                    int state = cell * 4 + heading;
+                    assertEquals(walk(lines, state, GuardPatrol.EXIT), patrol.jump(state, GuardPatrol.EXIT));
+                    for (int obstruction = 0; obstruction < rows * columns; obstruction++)
+                        if (obstruction != cell)
+                            assertEquals(walk(lines, state, obstruction), patrol.jump(state, obstruction));
+                }
+            }
+        }
+    }
+
+
+
+    /**
+     * Counting loops over the jump table should agree with walking the guard
+     * a step at a time from the start for every obstruction, on small random
+     * maps.
+     */
+    @Test
+    void testRandomMaps() {
+        var random = new Random(18);
+        int tried = 0;
+        while (tried < 100) {
+            var lines = randomMap(random, 4 + random.nextInt(20), 4 + random.nextInt(20), 6);
+            var patrol = patrol(lines);
+            if (patrol == null)
+                continue;
+
+            int expected = bruteForceLoops(lines);
+            assertEquals(expected, patrol.countLoops(), String.join("\n", lines));
+            assertEquals(expected, patrol.countLoopsParallel(), String.join("\n", lines));
+            tried++;
+        }
+    }
+
+
+
+    /**
+     * On generated 1000x1000 maps, too big to walk a step at a time for every
+     * obstruction, counting the loops in parallel should agree with counting
+     * them serially, from the common pool or from a pool of the caller's own.
+     */
+    @Test
+    void testLargeMapsInParallel() throws Exception {
+        var random = new Random(19);
+        int tried = 0;
+        while (tried < 2) {
+            var patrol = patrol(randomMap(random, 1000, 1000, SPARSE));
+            if (patrol == null || patrol.visitedCells() < 100)
+                continue;
+
+            int expected = patrol.countLoops();
+            assertEquals(expected, patrol.countLoopsParallel());
+            var pool = new ForkJoinPool(3);
+            try {
+                assertEquals(expected, pool.submit(patrol::countLoopsParallel).get());
+            } finally {
+                pool.shutdown();
+            }
+            tried++;
+        }
+    }
+
+
+
+    /**
+     * @return The patrol for a map, or {@code null} if the guard never leaves
+     *         it.
+     */
+    static GuardPatrol patrol(List<String> lines) {
+        var map = Coordinate.mapCoordinates(lines);
+        var guard = map.entrySet().stream().filter(e -> e.getValue() != '#').findAny().orElseThrow();
+        map.remove(guard.getKey());
+        try {
+            return new GuardPatrol(map, guard.getKey(), Direction.withSymbol(guard.getValue()), lines.size(),
+                                   lines.getFirst().length());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+
+    /**
+     * @return A map with obstructions scattered over about one cell in every
+     *         {@code spacing}, and the guard somewhere free, facing any way.
+     */
+    static List<String> randomMap(Random random, int rows, int columns, int spacing) {
+        char[][] cells = new char[rows][columns];
+        for (var row : cells)
+            for (int column = 0; column < columns; column++)
+                row[column] = random.nextInt(spacing) == 0 ? '#' : '.';
+        cells[random.nextInt(rows)][random.nextInt(columns)] = GUARDS.charAt(random.nextInt(4));
+
+        List<String> lines = new ArrayList<>();
+        for (var row : cells)
+            lines.add(new String(row));
+        return lines;
+    }
+
+
+
+    /**
+     * Count the loops the way Day 6 first did, by walking the guard a step at
+     * a time from the start with an obstruction on every cell of their path.
+     */
+    static int bruteForceLoops(List<String> lines) {
+        int rows = lines.size();
+        int columns = lines.getFirst().length();
+        int start = -1;
+        for (int cell = 0; cell < rows * columns; cell++)
+            if (GUARDS.indexOf(lines.get(cell / columns).charAt(cell % columns)) >= 0)
+                start = cell * 4 + GUARDS.indexOf(lines.get(cell / columns).charAt(cell % columns));
+
+        boolean[] path = new boolean[rows * columns];
+        for (int state = start; state >= 0; state = step(lines, state, GuardPatrol.EXIT))
+            path[state / 4] = true;
+
+        int loops = 0;
+        for (int obstruction = 0; obstruction < rows * columns; obstruction++) {
+            if (!path[obstruction] || obstruction == start / 4)
+                continue;
+            boolean[] seen = new boolean[rows * columns * 4];
+            for (int state = start; state >= 0; state = step(lines, state, obstruction)) {
+                if (seen[state]) {
+                    loops++;
+                    break;
+                }
+                seen[state] = true;
+            }
+        }
+        return loops;
+    }
+
+
+
+    /**
+     * @return The state after the guard's next turn, walking a step at a time,
+     *         or {@link GuardPatrol#EXIT} if they leave the map first.
+     */
+    private static int walk(List<String> lines, int state, int obstruction) {
+        while (true) {
+            int next = step(lines, state, obstruction);
+            if (next == GuardPatrol.EXIT || next / 4 == state / 4)
+                return next;
+            state = next;
+        }
+    }
+
+
+
+    /**
+     * @return The state after one step or turn, or {@link GuardPatrol#EXIT}
+     *         if the guard steps off the map.
+     */
+    private static int step(List<String> lines, int state, int obstruction) {
+        int columns = lines.getFirst().length();
+        int heading = state & 3;
+        int row = state / 4 / columns + ROW_STEP[heading];
+        int column = state / 4 % columns + COLUMN_STEP[heading];
+        if (row < 0 || row >= lines.size() || column < 0 || column >= columns)
+            return GuardPatrol.EXIT;
+        if (blocked(lines, row, column, obstruction))
+            return state / 4 * 4 + ((heading + 1) & 3);
+        return (row * columns + column) * 4 + heading;
+    }
+
+
+
+    private static boolean blocked(List<String> lines, int row, int column, int obstruction) {
+        return lines.get(row).charAt(column) == '#' || row * lines.getFirst().length() + column == obstruction;
+    }
+}
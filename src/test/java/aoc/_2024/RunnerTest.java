@@ -0,0 +1,81 @@
+package aoc._2024;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import aoc._2024.Runner.Options;
+
+class RunnerTest {
+
+    /**
+     * With no arguments, every day runs once, one at a time, without warming
+     * up.
+     */
+    @Test
+    void testDefaultOptions() {
+        var options = Options.parse(new String[0]);
+
+        assertEquals(IntStream.rangeClosed(1, 25).boxed().toList(), options.days());
+        assertEquals(0, options.warmup());
+        assertEquals(1, options.runs());
+        assertEquals(1, options.parallelism());
+    }
+
+
+
+    /**
+     * Days can be listed and given as ranges, in any order, and come out
+     * sorted without repeats.
+     */
+    @Test
+    void testParseOptions() {
+        var options = Options.parse(new String[] { "--days", "7, 1-3,5-6,2", "--warmup", "2", "--runs", "5",
+                "--parallel", "4" });
+
+        assertEquals(List.of(1, 2, 3, 5, 6, 7), options.days());
+        assertEquals(2, options.warmup());
+        assertEquals(5, options.runs());
+        assertEquals(4, options.parallelism());
+        assertEquals(List.of(22), Options.parse(new String[] { "--days", "22" }).days());
+    }
+
+
+
+    /**
+     * Unknown options, missing or malformed values, and counts out of range
+     * are refused.
+     */
+    @Test
+    void testBadOptions() {
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[] { "--fast", "1" }));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[] { "--runs" }));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[] { "--runs", "many" }));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[] { "--runs", "0" }));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[] { "--warmup", "-1" }));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse(new String[] { "--parallel", "0" }));
+    }
+
+
+
+    /**
+     * Each day's solver is found by name, and running it gives the answers
+     * for the input along with its timings.
+     */
+    @Test
+    void testRun() {
+        assertTrue(Runner.findSolver(1).isPresent());
+        assertTrue(Runner.findSolver(26).isEmpty());
+
+        var result = Runner.run(Runner.findSolver(1).orElseThrow(), "testInput/Day1.txt");
+        assertEquals(11, result.part1());
+        assertEquals(31L, result.part2());
+        assertEquals(result.parseNanos() + result.part1Nanos() + result.part2Nanos(), result.totalNanos());
+        assertTrue(result.allocatedBytes() >= -1);
+    }
+}
@@ -0,0 +1,80 @@
+package aoc._2024;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class StoneCounterTest {
+
+    /**
+     * The arrangement 125 17 becomes 22 stones after 6 blinks and 55312 after
+     * 25, and a single 0 stays a single stone for one blink.
+     */
+    @Test
+    void testCount() {
+        var counter = new StoneCounter(List.of(125L, 17L));
+
+        assertEquals(2, counter.count(0));
+        assertEquals(22, counter.count(6));
+        assertEquals(55_312, counter.count(25));
+        assertEquals(65_601_038_650_482L, counter.count(75));
+        assertEquals(1, new StoneCounter(List.of(0L)).count(1));
+    }
+
+
+
+    /**
+     * The number of stones outgrows a long after about 150 blinks, which
+     * counting exactly refuses but counting modulo a value gets past. Below
+     * the modulus, both counts agree.
+     */
+    @Test
+    void testOverflow() {
+        var counter = new StoneCounter(List.of(125L, 17L));
+        long modulus = 1_000_000_007L;
+
+        assertThrows(ArithmeticException.class, () -> counter.count(200));
+        assertEquals(counter.count(75) % modulus, counter.count(75, modulus));
+        assertEquals(counter.count(75), counter.count(75, 1L << 62));
+
+        // Counting modulo a multiple of the modulus must reduce to the same count
+        long past = counter.count(200, modulus);
+        assertTrue(past >= 0 && past < modulus);
+        assertEquals(past, counter.count(200, modulus * 998_244_353L) % modulus);
+        assertThrows(IllegalArgumentException.class, () -> counter.count(25, 0));
+        assertThrows(IllegalArgumentException.class, () -> counter.count(25, (1L << 62) + 1));
+    }
+
+
+
+    /**
+     * The arrangement 125 17 becomes 55312 stones after 25 blinks, and
+     * counting in shards should agree with counting serially however the
+     * generations are split, including in a pool of the caller's own.
+     */
+    @Test
+    void testStoneCounterParallel() throws Exception {
+        var counter = new StoneCounter(List.of(125L, 17L));
+
+        assertEquals(55_312, counter.count(25));
+        long expected = counter.count(75);
+        long modulus = 1_000_000_007L;
+        for (int shards : new int[] { 1, 3, 8 }) {
+            assertEquals(55_312, counter.countParallel(25, shards));
+            assertEquals(expected, counter.countParallel(75, shards));
+            assertEquals(counter.count(200, modulus), counter.countParallel(200, shards, modulus));
+        }
+
+        var pool = new ForkJoinPool(2);
+        try {
+            assertEquals(expected, pool.submit(() -> counter.countParallel(75, 4)).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
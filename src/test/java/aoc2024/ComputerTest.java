@@ -4,15 +4,23 @@ import static aoc._2024.Computer.REGISTER_A;
 import static aoc._2024.Computer.REGISTER_B;
 import static aoc._2024.Computer.REGISTER_C;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.Timeout.ThreadMode;
 
+import aoc._2024.CompiledProgram;
 import aoc._2024.Computer;
+import aoc._2024.Computer.Instruction;
+import aoc._2024.InstructionProfile;
+import aoc._2024.ProgramAnalysis;
+import aoc._2024.QuineSearch;
+import aoc._2024.RegisterComputer;
 
 @Timeout(value = 1, unit = TimeUnit.SECONDS, threadMode = ThreadMode.SEPARATE_THREAD)
 class ComputerTest {
@@ -95,4 +103,184 @@ class ComputerTest {
         assertEquals(44_354, state.registers().get(REGISTER_B));
 
     }
+
+
+
+    /**
+     * A compiled program should leave the computer in exactly the same state
+     * as running the program directly.
+     */
+    @Test
+    void testCompiledMatchesInterpreter() {
+        var programs = List.of(List.of(0, 1, 5, 4, 3, 0),
+                               List.of(0, 3, 5, 4, 3, 0),
+                               List.of(2, 4, 1, 3, 7, 5, 0, 3, 4, 3, 1, 5, 5, 5, 3, 0),
+                               List.of(2, 6, 1, 7, 4, 0, 5, 5, 5, 6));
+
+        for (var program : programs) {
+            var compiled = CompiledProgram.compile(program);
+            for (long a : new long[] { 0, 1, 10, 2024, 117_440, 22_571_680, 236_580_836_040_301L }) {
+                Computer interpreted = new Computer();
+                interpreted.registers().put(REGISTER_A, a);
+                interpreted.registers().put(REGISTER_C, 9L);
+                interpreted.run(program);
+
+                Computer state = new Computer();
+                state.registers().put(REGISTER_A, a);
+                state.registers().put(REGISTER_C, 9L);
+                compiled.run(state);
+
+                assertEquals(interpreted.registers(), state.registers());
+                assertEquals(interpreted.output(), state.output());
+            }
+        }
+    }
+
+
+
+    /**
+     * A register computer can be reset and reused, giving the same results as
+     * a fresh computer each time.
+     */
+    @Test
+    void testRegisterComputerReset() {
+        int[] program = { 0, 1, 5, 4, 3, 0 };
+        RegisterComputer state = new RegisterComputer(1);
+
+        for (long a : new long[] { 2024, 10, 2024 }) {
+            state.reset();
+            state.setA(a);
+            state.run(program);
+
+            Computer expected = new Computer();
+            expected.registers().put(REGISTER_A, a);
+            expected.run(List.of(0, 1, 5, 4, 3, 0));
+
+            assertEquals(expected.registers(), state.toComputer().registers());
+            assertEquals(expected.output(), state.getOutput());
+        }
+    }
+
+
+
+    /**
+     * The program 0,3,5,4,3,0 outputs a copy of itself if register A is
+     * instead initialized to 117440, and the search should find the same
+     * answer however many threads it has.
+     */
+    @Test
+    void testQuineSearch() {
+        var program = List.of(0, 3, 5, 4, 3, 0);
+
+        assertEquals(117_440, QuineSearch.findLowest(program));
+        for (int parallelism : new int[] { 1, 4 }) {
+            var pool = new ForkJoinPool(parallelism);
+            try {
+                assertEquals(117_440, QuineSearch.findLowest(program, pool));
+                var answers = QuineSearch.findLowestForEach(List.of(program,
+                                                                    List.of(2, 4, 1, 3, 7, 5, 0, 3, 4, 3, 1, 5, 5, 5, 3, 0)),
+                                                            pool);
+                assertEquals(117_440, answers[0]);
+                assertEquals(236_580_836_040_301L, answers[1]);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+
+
+    /**
+     * Running a batch of values of A should give the same output for each as
+     * running them one at a time.
+     */
+    @Test
+    void testRunBatch() {
+        var program = List.of(2, 4, 1, 3, 7, 5, 0, 3, 4, 3, 1, 5, 5, 5, 3, 0);
+        long[] aValues = new long[1_000];
+        for (int i = 0; i < aValues.length; i++)
+            aValues[i] = i * 236_580_836_040L + i;
+        aValues[0] = 0;
+        aValues[1] = 236_580_836_040_301L;
+
+        var outputs = Computer.runBatch(aValues, program);
+
+        assertEquals(aValues.length, outputs.size());
+        for (int i = 0; i < aValues.length; i++) {
+            Computer state = new Computer();
+            state.registers().put(REGISTER_A, aValues[i]);
+            state.run(program);
+
+            assertEquals(state.output().size(), outputs.count(i));
+            assertEquals(state.output(), outputs.toList(i));
+        }
+        assertTrue(outputs.matches(1, program.stream().mapToInt(Integer::intValue).toArray()));
+
+        // Longer outputs are counted, but only the values which fit are kept
+        var truncated = CompiledProgram.compile(List.of(0, 1, 5, 4, 3, 0)).runBatch(new long[] { 2024 }, 4);
+        assertEquals(11, truncated.count(0));
+        assertEquals(List.of(4, 2, 5, 6), truncated.toList(0));
+    }
+
+
+
+    /**
+     * Programs which loop over A a few bits at a time can be solved without
+     * running them, giving the same answers as searching.
+     */
+    @Test
+    void testProgramAnalysis() {
+        var program = List.of(2, 4, 1, 3, 7, 5, 0, 3, 4, 3, 1, 5, 5, 5, 3, 0);
+        var analysis = ProgramAnalysis.analyze(program).orElseThrow();
+
+        assertEquals(3, analysis.shift());
+        assertEquals(10, analysis.window());
+        assertEquals(0b11_1111_1111L << 6, analysis.dependencyMask(2));
+        assertEquals(QuineSearch.findLowest(program), analysis.solveQuine());
+        assertEquals(117_440, ProgramAnalysis.analyze(List.of(0, 3, 5, 4, 3, 0)).orElseThrow().solveQuine());
+
+        // Shifting by one bit at a time works too
+        var oneBit = ProgramAnalysis.analyze(List.of(0, 1, 5, 4, 3, 0)).orElseThrow();
+        long a = oneBit.solve(new int[] { 4, 2, 5, 6, 7, 7, 7, 7, 3, 1, 0 });
+        Computer state = new Computer();
+        state.registers().put(REGISTER_A, a);
+        state.run(List.of(0, 1, 5, 4, 3, 0));
+        assertEquals(List.of(4, 2, 5, 6, 7, 7, 7, 7, 3, 1, 0), state.output());
+        assertTrue(a <= 2024);
+
+        // Programs without a single loop can't be analysed
+        assertTrue(ProgramAnalysis.analyze(List.of(2, 6)).isEmpty());
+        assertTrue(ProgramAnalysis.analyze(List.of(5, 0, 5, 1, 5, 4)).isEmpty());
+    }
+
+
+
+    /**
+     * Profiling a run counts each instruction, the jumps and the outputs.
+     */
+    @Test
+    void testInstructionProfile() {
+        var program = List.of(0, 1, 5, 4, 3, 0);
+        Computer state = new Computer();
+        state.registers().put(REGISTER_A, 2024L);
+        var profile = new InstructionProfile();
+        state.run(program, profile);
+
+        assertEquals(List.of(4, 2, 5, 6, 7, 7, 7, 7, 3, 1, 0), state.output());
+
+        var report = profile.report();
+        assertEquals(11L, report.counts().get(Instruction.ADV));
+        assertEquals(11L, report.counts().get(Instruction.OUT));
+        assertEquals(11L, report.counts().get(Instruction.JNZ));
+        assertEquals(0L, report.counts().get(Instruction.BXL));
+        assertEquals(33, report.steps());
+        assertEquals(10, report.jumpsTaken());
+        assertEquals(1, report.jumpsNotTaken());
+        assertEquals(11, report.outputs());
+        assertEquals(10.0 / 11, report.jumpTakenRatio(), 1e-9);
+        assertEquals(1.0 / 3, report.outputsPerStep(), 1e-9);
+
+        profile.reset();
+        assertEquals(0, profile.report().steps());
+    }
 }